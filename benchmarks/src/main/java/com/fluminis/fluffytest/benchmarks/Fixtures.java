@@ -0,0 +1,56 @@
+package com.fluminis.fluffytest.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates JSON fixtures of a given size and depth.
+ * <p>
+ * A fixture is an array of <code>size</code> records, each record nesting <code>depth</code> levels of children:
+ * <pre>{@code
+ * [
+ *   {"id": 0, "name": "name-0", "tenant": "TENANT_ID", "date": "NOW", "child": {... "child": null}},
+ *   ...
+ * ]
+ * }</pre>
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static Path generate(int size, int depth) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            appendRecord(json, i, depth);
+        }
+        json.append("\n]");
+        try {
+            Path file = Files.createTempFile("fluffytest-" + size + "-" + depth + "-", ".json");
+            file.toFile().deleteOnExit();
+            return Files.writeString(file, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendRecord(StringBuilder json, int id, int depth) {
+        json.append("{\"id\": ").append(id)
+            .append(", \"name\": \"name-").append(id)
+            .append("\", \"tenant\": \"TENANT_ID\", \"date\": \"NOW\", \"child\": ");
+        if (depth > 1) {
+            appendRecord(json, id, depth - 1);
+        } else {
+            json.append("null");
+        }
+        json.append('}');
+    }
+
+    public record Item(long id, String name, String tenant, String date, Item child) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.fluminis.fluffytest.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fluminis.fluffytest.Mutators;
+import com.fluminis.fluffytest.Reader;
+import com.fluminis.fluffytest.TestUtils;
+
+/**
+ * Cost of the mutators on an already loaded fixture.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MutateBenchmark {
+
+    private static final BiConsumer<JsonNode, ObjectMapper> SET_VALUE = Mutators.setValue("0.child.name", "fluffy");
+    private static final BiConsumer<JsonNode, ObjectMapper> COPY = Mutators.copy("0.child", "1.child");
+    private static final Function<String, String> REPLACE_TENANT = Mutators.replaceAll("TENANT_ID", "fluffy");
+    private static final Function<String, String> REPLACE_NOW = Mutators.replaceAll("NOW", "2025-06-04");
+    private static final Function<String, String> REPLACE_PLACEHOLDERS = Mutators.replacePlaceholders(Map.of(
+        "TENANT_ID", "fluffy",
+        "NOW", "2025-06-04"));
+
+    @Param({"10", "10000"})
+    public int size;
+
+    @Param({"2", "8"})
+    public int depth;
+
+    private Reader baseline;
+    private String content;
+
+    @Setup
+    public void generate() {
+        baseline = TestUtils.read(Fixtures.generate(size, depth));
+        // load the tree once, forks share it
+        baseline.mutate(Mutators.setValue("0.name", "name-0"));
+        content = baseline.asString();
+    }
+
+    @Benchmark
+    public Reader setValue() {
+        return baseline.fork().mutate(SET_VALUE);
+    }
+
+    @Benchmark
+    public Reader copy() {
+        return baseline.fork().mutate(COPY);
+    }
+
+    @Benchmark
+    public String replaceAllRegex() {
+        return REPLACE_NOW.apply(REPLACE_TENANT.apply(content));
+    }
+
+    @Benchmark
+    public String replaceAllPlaceholders() {
+        return REPLACE_PLACEHOLDERS.apply(content);
+    }
+}
@@ -0,0 +1,69 @@
+package com.fluminis.fluffytest.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fluminis.fluffytest.TestUtils;
+
+/**
+ * Cost of loading a fixture, from a tiny classpath resource to generated files of several megabytes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadBenchmark {
+
+    private static final TypeReference<List<Fixtures.Item>> ITEMS = new TypeReference<>() {
+    };
+
+    @Param({"10", "10000"})
+    public int size;
+
+    @Param({"1", "8"})
+    public int depth;
+
+    private Path fixture;
+
+    @Setup
+    public void generate() {
+        fixture = Fixtures.generate(size, depth);
+    }
+
+    @Benchmark
+    public String readClasspathResource() {
+        return TestUtils.read("in/small.json").asString();
+    }
+
+    @Benchmark
+    public String asString() {
+        return TestUtils.read(fixture).asString();
+    }
+
+    @Benchmark
+    public JsonNode asJsonNode() {
+        return TestUtils.read(fixture).asJsonNode();
+    }
+
+    @Benchmark
+    public List<Fixtures.Item> asObject() {
+        return TestUtils.read(fixture).asObject(ITEMS);
+    }
+}
@@ -0,0 +1,112 @@
+package com.fluminis.fluffytest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A Reader loaded, mutated and unmarshalled in the background, created by {@link TestUtils#readAsync(String)}.
+ * <p>
+ * Every step runs on the executor loading the fixtures, made of virtual threads when the JVM has them, so that the
+ * fixtures of a test are prepared while something else is starting:
+ * <pre>{@code
+ * CompletableFuture<Integer> port = CompletableFuture.supplyAsync(() -> startStub());
+ * CompletableFuture<Order> order = TestUtils.readAsync("in/order.json")
+ *     .mutate(setValue("order.status", "PAID"))
+ *     .mutate(port, p -> setValue("order.callback", "http://localhost:" + p))
+ *     .asObject(Order.class);
+ * }</pre>
+ * An AsyncReader never changes: each mutation returns a new one, working on a {@link Reader#fork()}, so the same
+ * AsyncReader can be the start of many variants.
+ */
+public final class AsyncReader {
+
+    private final CompletableFuture<? extends Reader> reader;
+    private final Executor executor;
+
+    AsyncReader(CompletableFuture<? extends Reader> reader, Executor executor) {
+        this.reader = reader;
+        this.executor = executor;
+    }
+
+    /**
+     * See {@link Reader#mutate(Function)}.
+     */
+    public AsyncReader mutate(Function<String, String> mutator) {
+        return then(current -> current.fork().mutate(mutator));
+    }
+
+    /**
+     * See {@link Reader#mutate(BiConsumer[])}.
+     */
+    @SafeVarargs
+    public final AsyncReader mutate(BiConsumer<JsonNode, ObjectMapper>... mutators) {
+        return then(current -> current.fork().mutate(mutators));
+    }
+
+    /**
+     * Apply a mutator depending on a value computed asynchronously, once both this reader and the value are ready.
+     */
+    public <V> AsyncReader mutate(CompletionStage<V> value, Function<? super V, ? extends BiConsumer<JsonNode, ObjectMapper>> mutator) {
+        return new AsyncReader(reader.thenCombineAsync(value, (current, ready) -> current.fork().mutate(mutator.apply(ready)), executor), executor);
+    }
+
+    /**
+     * See {@link Reader#asString()}.
+     */
+    public CompletableFuture<String> asString() {
+        return reader.thenApplyAsync(current -> current.fork().asString(), executor);
+    }
+
+    /**
+     * See {@link Reader#asObject(Class)}.
+     */
+    public <T> CompletableFuture<T> asObject(Class<T> clazz) {
+        return reader.thenApplyAsync(current -> current.fork().asObject(clazz), executor);
+    }
+
+    /**
+     * See {@link Reader#asObject(TypeReference)}.
+     */
+    public <T> CompletableFuture<T> asObject(TypeReference<T> typeReference) {
+        return reader.thenApplyAsync(current -> current.fork().asObject(typeReference), executor);
+    }
+
+    /**
+     * See {@link Reader#asJsonNode()}.
+     */
+    public <T extends JsonNode> CompletableFuture<T> asJsonNode() {
+        return reader.thenApplyAsync(current -> current.fork().asJsonNode(), executor);
+    }
+
+    /**
+     * @return The reader once ready, private to the caller.
+     */
+    public CompletableFuture<Reader> toCompletableFuture() {
+        return reader.thenApply(Reader::fork);
+    }
+
+    /**
+     * Wait for the reader to be ready.
+     *
+     * @return The reader, private to the caller.
+     */
+    public Reader join() {
+        try {
+            return toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private AsyncReader then(Function<Reader, Reader> step) {
+        return new AsyncReader(reader.thenApplyAsync(step, executor), executor);
+    }
+}
@@ -0,0 +1,283 @@
+package com.fluminis.fluffytest;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Cache of the parsed fixtures on the disk, shared by every JVM of the build and by the next builds.
+ * <p>
+ * The cache is opt-in, declare it in your PackageSettings:
+ * <pre>{@code
+ * public class PackageSettings {
+ *     public static BinaryFixtureCache binaryCache = BinaryFixtureCache.inTarget();
+ * }
+ * }</pre>
+ * The first time a fixture is parsed, its tree is written in the Smile binary format in the cache directory, in a file
+ * named after the hash of the content of the fixture. Later reads, from any surefire fork, parse that file instead of
+ * the JSON text, which is much cheaper. An edited fixture has another hash, so it is parsed from the text again.
+ * <p>
+ * The hash of each file is recorded in an index of the cache directory, with the size and the last modified time of the
+ * file: as long as they don't change, the text of the fixture is neither read nor hashed again.
+ * <p>
+ * Files are written atomically, and the index is only appended to, so forks writing the same fixture at the same time
+ * don't corrupt each other. When a JVM loads an index holding several lines for a file, it rewrites the index with the
+ * last one only, and deletes the cached files of the hashes no file has anymore. A line appended by another fork
+ * meanwhile may be lost: the hash of its file is computed again on the next read.
+ */
+public final class BinaryFixtureCache {
+
+    /**
+     * The folder of the cache when using {@link #inTarget()}, relative to the working directory of the build.
+     */
+    public static final Path DEFAULT_DIRECTORY = Path.of("target", "fluffytest-cache");
+
+    private static final String EXTENSION = ".sml";
+
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private static final String INDEX = "index";
+
+    private final Path directory;
+    private volatile Map<Path, Stamp> index;
+    private final SmileFactory smileFactory = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+
+    public BinaryFixtureCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return A cache in {@link #DEFAULT_DIRECTORY}, cleaned by <code>mvn clean</code>.
+     */
+    public static BinaryFixtureCache inTarget() {
+        return new BinaryFixtureCache(DEFAULT_DIRECTORY);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * @param content The content of the file, only read if the file is not in the index or was modified since.
+     * @return A parser over the cached binary form of the file, written first if it is not cached yet.
+     */
+    JsonParser createParser(Path source, Supplier<byte[]> content, ObjectMapper objectMapper) throws IOException {
+        Path key = source.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Stamp stamp = index().get(key);
+        if (stamp != null && stamp.size() == size && stamp.lastModified() == lastModified) {
+            JsonParser cached = openCached(file(stamp.hash(), objectMapper));
+            return cached != null ? cached : parseAndWrite(stamp.hash(), content.get(), objectMapper);
+        }
+        byte[] bytes = content.get();
+        String hash = hash(bytes);
+        record(key, new Stamp(size, lastModified, hash));
+        JsonParser cached = openCached(file(hash, objectMapper));
+        return cached != null ? cached : parseAndWrite(hash, bytes, objectMapper);
+    }
+
+    /**
+     * @return A parser over the cached binary form of the content, written first if it is not cached yet.
+     */
+    JsonParser createParser(byte[] content, ObjectMapper objectMapper) throws IOException {
+        String hash = hash(content);
+        JsonParser cached = openCached(file(hash, objectMapper));
+        return cached != null ? cached : parseAndWrite(hash, content, objectMapper);
+    }
+
+    /**
+     * @return A parser over the cached file, or null if there is none.
+     */
+    private JsonParser openCached(Path file) throws IOException {
+        InputStream in;
+        try {
+            in = new BufferedInputStream(Files.newInputStream(file));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            in.mark(SMILE_HEADER.length);
+            boolean hasHeader = Arrays.equals(in.readNBytes(SMILE_HEADER.length), SMILE_HEADER);
+            in.reset();
+            if (hasHeader) {
+                return smileFactory.createParser(in);
+            }
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        // not written by this cache, parse the text and write it again
+        in.close();
+        return null;
+    }
+
+    private JsonParser parseAndWrite(String hash, byte[] content, ObjectMapper objectMapper) throws IOException {
+        JsonNode tree = objectMapper.readTree(content);
+        write(file(hash, objectMapper), tree, objectMapper);
+        return tree.traverse(objectMapper);
+    }
+
+    private void write(Path file, JsonNode tree, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp);
+                 JsonGenerator generator = smileFactory.createGenerator(out)) {
+                objectMapper.writeTree(generator, tree);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return The cached file of the content, which also depends on the features changing the type of the parsed
+     * numbers.
+     */
+    private Path file(String hash, ObjectMapper objectMapper) {
+        String features = (objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS) ? "-d" : "")
+                + (objectMapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS) ? "-i" : "");
+        return directory.resolve(hash + features + EXTENSION);
+    }
+
+    private static String hash(byte[] content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest(content));
+    }
+
+    /**
+     * @return The hashes of the files already cached, by any JVM, when this JVM first used the cache. Later lines of
+     * the index win over earlier ones.
+     */
+    private Map<Path, Stamp> index() throws IOException {
+        Map<Path, Stamp> current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new ConcurrentHashMap<>();
+                    List<String> lines;
+                    try {
+                        lines = Files.readAllLines(directory.resolve(INDEX), UTF_8);
+                    } catch (NoSuchFileException e) {
+                        lines = List.of();
+                    }
+                    Set<String> outdated = new HashSet<>();
+                    boolean duplicates = false;
+                    for (String line : lines) {
+                        // size, last modified, hash and path, the only field which may contain spaces
+                        String[] fields = line.split(" ", 4);
+                        Stamp previous;
+                        try {
+                            previous = current.put(Path.of(fields[3]), new Stamp(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]));
+                        } catch (RuntimeException e) {
+                            // a line being written by another fork
+                            continue;
+                        }
+                        if (previous != null) {
+                            duplicates = true;
+                            outdated.add(previous.hash());
+                        }
+                    }
+                    if (duplicates) {
+                        compact(current, outdated);
+                    }
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rewrite the index with the last line of each file, and delete the cached files of the given hashes, unless a file
+     * still has them. Failures are ignored, the index is then compacted by a later build.
+     */
+    private void compact(Map<Path, Stamp> current, Set<String> outdated) {
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<Path, Stamp> entry : current.entrySet()) {
+            lines.append(entry.getValue().line(entry.getKey()));
+            outdated.remove(entry.getValue().hash());
+        }
+        try {
+            Path temp = Files.createTempFile(directory, INDEX, ".tmp");
+            try {
+                Files.writeString(temp, lines, UTF_8);
+                try {
+                    Files.move(temp, directory.resolve(INDEX), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, directory.resolve(INDEX), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            for (String hash : outdated) {
+                // with any suffix of the features of the ObjectMapper
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, hash + "*" + EXTENSION)) {
+                    for (Path file : files) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // e.g. a file being read by another fork on Windows
+        }
+    }
+
+    private synchronized void record(Path key, Stamp stamp) throws IOException {
+        index().put(key, stamp);
+        Files.createDirectories(directory);
+        // a single small append, which is not interleaved with the ones of the other forks
+        Files.write(directory.resolve(INDEX), stamp.line(key).getBytes(UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private record Stamp(long size, long lastModified, String hash) {
+
+        private String line(Path key) {
+            return size + " " + lastModified + " " + hash + " " + key + "\n";
+        }
+    }
+}
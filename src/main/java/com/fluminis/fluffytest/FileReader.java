@@ -1,29 +1,51 @@
 package com.fluminis.fluffytest;
 
 import org.packagesettings.PackageLevelSettings;
+import org.packagesettings.Settings;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 public class FileReader implements Reader {
 
-    private final Path path;
+    private final FixtureSource source;
+    /**
+     * Resolved once by the thread creating the reader, as the content may be loaded by worker threads which don't see
+     * the same PackageSettings.
+     */
+    private final Map<String, Settings> settings;
     private String content;
-    private JsonNode root;
+    private JsonTree tree;
     private ObjectMapper objectMapper;
+    private Representation representation = Representation.ORIGINAL;
 
     FileReader(Path path) {
-        this.path = path;
+        this(FixtureSource.of(path));
+    }
+
+    FileReader(FixtureSource source) {
+        this(source, PackageLevelSettings.get());
+    }
+
+    FileReader(FixtureSource source, Map<String, Settings> settings) {
+        this.source = source;
+        this.settings = settings;
     }
 
     public FileReader withObjectMapper(ObjectMapper mapper) {
@@ -32,48 +54,244 @@ public class FileReader implements Reader {
     }
 
     public FileReader mutate(Function<String, String> mutator) {
-        this.content = mutator.apply(asString());
+        String current = asString();
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.MUTATE, source);
+        this.content = PlaceholderReplacer.apply(mutator, current, getObjectMapper());
+        span.end(FixtureEvents.describe(mutator), 0);
+        this.tree = null;
+        this.representation = Representation.STRING;
         return this;
     }
 
     public FileReader mutate(BiConsumer<JsonNode, ObjectMapper> mutator) {
-        mutator.accept(asJsonNode(), getObjectMapper());
+        JsonTree current = getTree();
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.MUTATE, source);
+        current.apply(mutator, getObjectMapper());
+        span.end(FixtureEvents.describe(mutator), 0);
+        this.content = null;
+        this.representation = Representation.TREE;
         return this;
     }
 
+    public FileReader fork() {
+        FileReader fork = new FileReader(source, settings);
+        fork.content = content;
+        fork.tree = tree == null ? null : tree.fork();
+        fork.objectMapper = objectMapper;
+        fork.representation = representation;
+        return fork;
+    }
+
     public String asString() {
         if (content == null) {
-            try {
-                content = Files.readString(path, UTF_8);
-            } catch (IOException e) {
-                throw new RuntimeException(String.format("Could not read %s", path), e);
+            if (representation == Representation.TREE) {
+                content = writeTree();
+            } else {
+                content = readFile();
             }
         }
         return content;
     }
 
     public <T> T asObject(Class<T> clazz) {
-        return getObjectMapper().convertValue(asJsonNode(), clazz);
+        return readAsObject(ObjectMappers.readerFor(getObjectMapper(), clazz));
     }
 
     public <T> T asObject(TypeReference<T> typeReference) {
-        return getObjectMapper().convertValue(asJsonNode(), typeReference);
+        return readAsObject(ObjectMappers.readerFor(getObjectMapper(), typeReference));
+    }
+
+    <T> T asObject(Type type) {
+        return readAsObject(ObjectMappers.readerFor(getObjectMapper(), getObjectMapper().constructType(type)));
+    }
+
+    public <T> T asObject(String path, Class<T> clazz) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), clazz));
+    }
+
+    public <T> T asObject(String path, TypeReference<T> typeReference) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), typeReference));
+    }
+
+    public <T> Stream<T> stream(Class<T> clazz) {
+        return JsonStreams.stream(elements(null, clazz));
+    }
+
+    public <T> Stream<T> stream(String path, Class<T> clazz) {
+        return JsonStreams.stream(elements(JsonPath.compile(path), clazz));
+    }
+
+    public <T> Iterator<T> iterator(Class<T> clazz) {
+        return elements(null, clazz);
     }
 
     public <T extends JsonNode> T asJsonNode() {
-        if (root == null) {
-            try {
-                root = getObjectMapper().readTree(asString());
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
+        return (T) getTree().mutable();
+    }
+
+    /**
+     * Read and parse the content now, so that later calls, and the forks of this reader, find it ready.
+     */
+    FileReader load() {
+        getTree();
+        return this;
+    }
+
+    public <T extends JsonNode> T at(String path) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), JsonNode.class));
+    }
+
+    private JsonTree getTree() {
+        if (tree == null) {
+            FixtureCache fixtureCache = representation == Representation.ORIGINAL ? getFixtureCache() : null;
+            if (fixtureCache != null) {
+                tree = new JsonTree(fixtureCache.get(source.path()).tree(getObjectMapper()), true);
+            } else {
+                FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.PARSE, source);
+                try (JsonParser parser = createParser()) {
+                    tree = new JsonTree(getObjectMapper().readTree(parser), false);
+                    long bytes = parser.currentLocation().getByteOffset();
+                    // a String is parsed as chars
+                    span.end(null, bytes < 0 && content != null ? utf8Length(content) : Math.max(bytes, 0));
+                } catch (IOException e) {
+                    throw new RuntimeException(String.format("Could not read %s", source), e);
+                }
             }
         }
-        return (T) root;
+        return tree;
+    }
+
+    /**
+     * @return A parser over the cheapest form of the current content: the tree or the String if already loaded, the
+     * binary form of the BinaryFixtureCache, otherwise the bytes of the file, read incrementally.
+     */
+    JsonParser createParser() throws IOException {
+        if (tree != null) {
+            return tree.readOnly().traverse(getObjectMapper());
+        }
+        if (content != null) {
+            return getObjectMapper().createParser(content);
+        }
+        BinaryFixtureCache binaryCache = FluffyTestPackageSettings.BINARY_CACHE.getValue(settings, () -> null);
+        if (binaryCache != null) {
+            return source.path() == null
+                    ? binaryCache.createParser(readBytes(), getObjectMapper())
+                    : binaryCache.createParser(source.path(), this::readBytes, getObjectMapper());
+        }
+        FixtureCache fixtureCache = getFixtureCache();
+        if (fixtureCache != null) {
+            return getObjectMapper().createParser(fixtureCache.get(source.path()).bytes());
+        }
+        OffHeapFixtureStore offHeapStore = getOffHeapStore();
+        if (offHeapStore != null) {
+            return getObjectMapper().createParser(new ByteBufferBackedInputStream(offHeapStore.get(source.path())));
+        }
+        return source.createParser(getObjectMapper());
+    }
+
+    private String readFile() {
+        OffHeapFixtureStore offHeapStore = getFixtureCache() == null ? getOffHeapStore() : null;
+        if (offHeapStore != null) {
+            return UTF_8.decode(offHeapStore.get(source.path())).toString();
+        }
+        return new String(readBytes(), UTF_8);
+    }
+
+    private byte[] readBytes() {
+        FixtureCache fixtureCache = getFixtureCache();
+        if (fixtureCache != null) {
+            return fixtureCache.get(source.path()).bytes();
+        }
+        OffHeapFixtureStore offHeapStore = getOffHeapStore();
+        if (offHeapStore != null) {
+            ByteBuffer buffer = offHeapStore.get(source.path());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.READ, source);
+        try {
+            byte[] bytes = source.readAllBytes();
+            span.end(null, bytes.length);
+            return bytes;
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        }
+    }
+
+    private String writeTree() {
+        try {
+            return ObjectMappers.writerFor(getObjectMapper(), JsonNode.class).writeValueAsString(tree.readOnly());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <T> JsonStreams.ElementIterator<T> elements(JsonPath arrayPath, Class<T> clazz) {
+        try {
+            return JsonStreams.elements(createParser(), arrayPath, ObjectMappers.readerFor(getObjectMapper(), clazz), source);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        }
+    }
+
+    /**
+     * Bind the content without building the intermediate tree when it was not needed so far.
+     */
+    private <T> T readAsObject(com.fasterxml.jackson.databind.ObjectReader reader) {
+        return readAsObject(null, reader);
+    }
+
+    /**
+     * Bind the value at the given path, or the whole content if the path is null. The values outside the path are
+     * skipped token by token.
+     */
+    private <T> T readAsObject(JsonPath path, com.fasterxml.jackson.databind.ObjectReader reader) {
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.BIND, source);
+        try (JsonParser parser = createParser()) {
+            if (path != null) {
+                JsonStreams.seek(parser, path);
+            }
+            T object = reader.readValue(parser);
+            span.end(path == null ? reader.getValueType().toString() : reader.getValueType() + " at " + path, 0);
+            return object;
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        }
+    }
+
+    /**
+     * @return The FixtureCache of the PackageSettings, or null if there is none or the source is not a file.
+     */
+    private FixtureCache getFixtureCache() {
+        return source.path() == null ? null : FluffyTestPackageSettings.FIXTURE_CACHE.getValue(settings, () -> null);
+    }
+
+    /**
+     * @return The OffHeapFixtureStore of the PackageSettings, or null if there is none or the source is not a file.
+     */
+    private OffHeapFixtureStore getOffHeapStore() {
+        return source.path() == null ? null : FluffyTestPackageSettings.OFF_HEAP_STORE.getValue(settings, () -> null);
+    }
+
+    private static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            // each char of a surrogate pair counts for half of the 4 bytes of the code point
+            length += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
     }
 
     private ObjectMapper getObjectMapper() {
         if (objectMapper == null) {
-            this.objectMapper = PackageLevelSettings.getValueFor(FluffyTestPackageSettings.OBJECT_MAPPER, TestUtils::createObjectMapper);
+            this.objectMapper = FluffyTestPackageSettings.OBJECT_MAPPER.getValue(settings, ObjectMappers::defaultObjectMapper);
         }
         return objectMapper;
     }
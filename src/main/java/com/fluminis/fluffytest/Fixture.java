@@ -0,0 +1,29 @@
+package com.fluminis.fluffytest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Inject the content of a file of the resource folder in a field or a parameter of a test class extended with
+ * {@link FixtureExtension}.
+ * <p>
+ * The path is resolved as by {@link TestUtils#read(String)}. The annotated element can be:<ul>
+ * <li>a {@link Reader}, a new one for each injection, so it can be mutated freely
+ * <li>a String, the content of the file
+ * <li>a JsonNode, or one of its subclasses like ObjectNode
+ * <li>any other type, the content of the file is unmarshalled to it
+ * </ul>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+public @interface Fixture {
+
+    /**
+     * @return The path of the file in the resource folder, e.g. <code>in/big.json</code>.
+     */
+    String value();
+}
@@ -0,0 +1,311 @@
+package com.fluminis.fluffytest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Process-wide cache of the fixtures read by {@link TestUtils#read(String)} and {@link TestUtils#read(Path)}.
+ * <p>
+ * The cache is opt-in, declare it in your PackageSettings:
+ * <pre>{@code
+ * public class PackageSettings {
+ *     public static FixtureCache fixtureCache = FixtureCache.shared();
+ * }
+ * }</pre>
+ * Entries are keyed by the resolved path of the file, its last modified time and its size, so an edited file is read
+ * again. Both the raw bytes and the parsed JsonNode are kept. Readers share the cached tree copy-on-write, so that
+ * mutations never leak from one test to another.
+ * <p>
+ * The cache is bounded by an approximate memory budget, the least recently used entries are evicted first.
+ * <p>
+ * In a JVM which outlives the edits of the fixtures (IDE runners, Gradle daemons...), {@link #watching(long)} creates a
+ * cache which watches the folders of the files instead: unchanged files are served without any I/O, and the entries of
+ * modified or deleted files are evicted as soon as the file system reports it. Files which can't be watched are still
+ * checked on each read. The watcher runs on a daemon thread until {@link #close()} is called.
+ */
+public final class FixtureCache implements AutoCloseable {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * A parsed JsonNode tree takes several times the size of its text.
+     */
+    private static final int TREE_WEIGHT_FACTOR = 4;
+
+    private static final FixtureCache SHARED = new FixtureCache(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private final boolean watching;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private FixtureWatcher watcher;
+    private boolean closed;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    /**
+     * The number of changes reported in each folder, and in every folder at once.
+     */
+    private final Map<Path, Long> changes = new HashMap<>();
+    private long allChanges;
+
+    /**
+     * @param maxBytes Approximate memory budget of the cache.
+     */
+    public FixtureCache(long maxBytes) {
+        this(maxBytes, false);
+    }
+
+    private FixtureCache(long maxBytes, boolean watching) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes should be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.watching = watching;
+    }
+
+    /**
+     * @param maxBytes Approximate memory budget of the cache.
+     * @return A cache evicting the entries of the files as soon as they are changed, see {@link FixtureCache}.
+     */
+    public static FixtureCache watching(long maxBytes) {
+        return new FixtureCache(maxBytes, true);
+    }
+
+    /**
+     * @return The cache shared by the whole JVM, with a budget of {@link #DEFAULT_MAX_BYTES}.
+     */
+    public static FixtureCache shared() {
+        return SHARED;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), weight, invalidations);
+    }
+
+    /**
+     * Evict every entry. A watching cache keeps watching the folders already registered, see {@link #close()}.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Stop watching the folders of the files, and the thread which does it. From now on every entry is checked on each
+     * read, as by a cache which is not watching. Does nothing for other caches.
+     */
+    @Override
+    public void close() {
+        FixtureWatcher current;
+        synchronized (this) {
+            closed = true;
+            current = watcher;
+            watcher = null;
+            for (Entry entry : entries.values()) {
+                entry.watched = false;
+            }
+        }
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * @return The content of the file, read again only if it was modified since it was cached.
+     */
+    Entry get(Path path) {
+        Path key = path.toAbsolutePath().normalize();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.watched) {
+                hits++;
+                return entry;
+            }
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", path), e);
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        long changesBefore;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.lastModified == lastModified && entry.size == size) {
+                hits++;
+                // the file was not changed since it was read, and any later change of its folder evicts the entry
+                entry.watched = watcher != null && watcher.isWatching(key);
+                return entry;
+            }
+            misses++;
+            changesBefore = changesOf(key.getParent());
+        }
+        // the folder is watched before the file is read, so that no change goes unnoticed
+        FixtureWatcher current = watcher();
+        boolean watched = current != null && current.watch(key);
+        Entry entry;
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.READ, key);
+        try {
+            entry = new Entry(key, lastModified, size, Files.readAllBytes(key));
+            span.end(null, size);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", path), e);
+        }
+        synchronized (this) {
+            // a change reported while the file was read may not be in the bytes: check the file on the next read
+            entry.watched = watched && changesOf(key.getParent()) == changesBefore;
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.weight();
+            }
+            weight += entry.weight();
+            evict();
+        }
+        return entry;
+    }
+
+    private synchronized FixtureWatcher watcher() {
+        if (watching && !closed && watcher == null) {
+            watcher = FixtureWatcher.start(this);
+        }
+        return watcher;
+    }
+
+    private long changesOf(Path folder) {
+        return allChanges + changes.getOrDefault(folder, 0L);
+    }
+
+    /**
+     * @return Whether the entry of the file is served without checking the file.
+     */
+    synchronized boolean isWatched(Path path) {
+        Entry entry = entries.get(path.toAbsolutePath().normalize());
+        return entry != null && entry.watched;
+    }
+
+    /**
+     * Evict the entry of a file reported as changed by the {@link FixtureWatcher}.
+     */
+    synchronized void invalidate(Path file) {
+        changes.merge(file.getParent(), 1L, Long::sum);
+        remove(entries.remove(file));
+    }
+
+    synchronized void invalidateFolder(Path folder) {
+        changes.merge(folder, 1L, Long::sum);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (folder.equals(entry.key.getParent())) {
+                iterator.remove();
+                remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Evict every entry, when some changes were not reported.
+     */
+    synchronized void invalidateAll() {
+        allChanges++;
+        invalidations += entries.size();
+        clear();
+    }
+
+    private void remove(Entry entry) {
+        if (entry != null) {
+            weight -= entry.weight();
+            invalidations++;
+        }
+    }
+
+    private JsonNode treeOf(Entry entry, ObjectMapper objectMapper) throws IOException {
+        synchronized (this) {
+            if (entry.tree != null && entry.treeMapper == objectMapper) {
+                return entry.tree;
+            }
+        }
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.PARSE, entry.key);
+        JsonNode tree = objectMapper.readTree(entry.bytes);
+        span.end(null, entry.bytes.length);
+        synchronized (this) {
+            // only the first mapper's tree is kept, and evicted entries are not counted anymore
+            if (entry.tree == null && entries.get(entry.key) == entry) {
+                entry.tree = tree;
+                entry.treeMapper = objectMapper;
+                weight += (long) entry.bytes.length * TREE_WEIGHT_FACTOR;
+                evict();
+            }
+        }
+        return tree;
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (weight > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.weight();
+            evictions++;
+        }
+    }
+
+    /**
+     * @param invalidations The number of entries evicted because their file was reported as changed.
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long bytes, long invalidations) {
+    }
+
+    final class Entry {
+        private final Path key;
+        private final long lastModified;
+        private final long size;
+        private final byte[] bytes;
+        private JsonNode tree;
+        private ObjectMapper treeMapper;
+        private boolean watched;
+
+        private Entry(Path key, long lastModified, long size, byte[] bytes) {
+            this.key = key;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.bytes = bytes;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        /**
+         * @return The parsed content of the file, shared with other readers: it must not be modified.
+         */
+        JsonNode tree(ObjectMapper objectMapper) {
+            try {
+                return treeOf(this, objectMapper);
+            } catch (IOException e) {
+                throw new RuntimeException(String.format("Could not parse %s", key), e);
+            }
+        }
+
+        private long weight() {
+            return tree == null ? bytes.length : (long) bytes.length * (1 + TREE_WEIGHT_FACTOR);
+        }
+    }
+}
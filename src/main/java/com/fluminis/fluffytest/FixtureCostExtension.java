@@ -0,0 +1,138 @@
+package com.fluminis.fluffytest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JUnit 5 extension reporting, at the end of the run, the fixtures and the mutators which took the most time.
+ * <p>
+ * Register it on the test classes to measure, or for the whole run with JUnit's extension auto-detection:
+ * <pre>{@code
+ * @ExtendWith(FixtureCostExtension.class)
+ * class OrderTest {
+ *     ...
+ * }
+ * }</pre>
+ * The report is printed on the standard output, or written to the file given by the configuration parameter
+ * <code>fluffytest.report.file</code>. The configuration parameter <code>fluffytest.report.top</code> sets the number of
+ * lines of each section, 10 by default.
+ * <p>
+ * The same measures are emitted as JDK Flight Recorder events of the "FluffyTest" category, which do not need this
+ * extension: <code>-XX:StartFlightRecording</code> is enough.
+ */
+public class FixtureCostExtension implements BeforeAllCallback {
+
+    public static final String REPORT_FILE = "fluffytest.report.file";
+    public static final String REPORT_TOP = "fluffytest.report.top";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        // the root store is closed at the end of the run, only one collector is registered whatever the number of classes
+        context.getRoot()
+            .getStore(ExtensionContext.Namespace.create(FixtureCostExtension.class))
+            .computeIfAbsent(Collector.class, __ -> new Collector(
+                context.getConfigurationParameter(REPORT_FILE).map(Path::of).orElse(null),
+                context.getConfigurationParameter(REPORT_TOP).map(Integer::parseInt).orElse(10)));
+    }
+
+    static final class Collector implements FixtureEvents.Listener, AutoCloseable {
+        private final Path reportFile;
+        private final int top;
+        private final Map<String, Cost> fixtures = new ConcurrentHashMap<>();
+        private final Map<String, Cost> mutators = new ConcurrentHashMap<>();
+
+        Collector(Path reportFile, int top) {
+            this.reportFile = reportFile;
+            this.top = top;
+            FixtureEvents.addListener(this);
+        }
+
+        @Override
+        public void onEvent(FixtureEvents.Kind kind, String resource, String detail, long bytes, long nanos) {
+            fixtures.computeIfAbsent(resource, __ -> new Cost()).add(kind, bytes, nanos);
+            if (kind == FixtureEvents.Kind.MUTATE) {
+                mutators.computeIfAbsent(detail, __ -> new Cost()).add(kind, bytes, nanos);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            FixtureEvents.removeListener(this);
+            String report = report();
+            if (reportFile == null) {
+                System.out.print(report);
+            } else {
+                if (reportFile.getParent() != null) {
+                    Files.createDirectories(reportFile.getParent());
+                }
+                Files.writeString(reportFile, report, UTF_8);
+            }
+        }
+
+        String report() {
+            StringWriter report = new StringWriter();
+            PrintWriter out = new PrintWriter(report);
+            out.printf("FluffyTest fixture costs, top %d%n", top);
+            out.printf("%10s %10s %10s %10s %12s  %s%n", "read ms", "parse ms", "mutate ms", "bind ms", "bytes read", "fixture");
+            fixtures.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Cost> entry) -> entry.getValue().totalNanos()).reversed())
+                .limit(top)
+                .forEach(entry -> {
+                    Cost cost = entry.getValue();
+                    out.printf("%10.1f %10.1f %10.1f %10.1f %12d  %s%n",
+                        cost.millis(FixtureEvents.Kind.READ), cost.millis(FixtureEvents.Kind.PARSE),
+                        cost.millis(FixtureEvents.Kind.MUTATE), cost.millis(FixtureEvents.Kind.BIND),
+                        cost.bytes.sum(), entry.getKey());
+                });
+            out.printf("%10s %10s  %s%n", "mutate ms", "count", "mutator");
+            mutators.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Cost> entry) -> entry.getValue().totalNanos()).reversed())
+                .limit(top)
+                .forEach(entry -> out.printf("%10.1f %10d  %s%n",
+                    entry.getValue().millis(FixtureEvents.Kind.MUTATE), entry.getValue().count.sum(), entry.getKey()));
+            out.flush();
+            return report.toString();
+        }
+    }
+
+    private static final class Cost {
+        private final Map<FixtureEvents.Kind, LongAdder> nanos = new EnumMap<>(FixtureEvents.Kind.class);
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder count = new LongAdder();
+
+        private Cost() {
+            for (FixtureEvents.Kind kind : FixtureEvents.Kind.values()) {
+                nanos.put(kind, new LongAdder());
+            }
+        }
+
+        private void add(FixtureEvents.Kind kind, long bytes, long nanos) {
+            this.nanos.get(kind).add(nanos);
+            this.count.increment();
+            if (kind == FixtureEvents.Kind.READ) {
+                this.bytes.add(bytes);
+            }
+        }
+
+        private long totalNanos() {
+            return nanos.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        private double millis(FixtureEvents.Kind kind) {
+            return nanos.get(kind).sum() / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.fluminis.fluffytest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Instrumentation of the readers.
+ * <p>
+ * Each read, parse, mutation and bind is emitted as a JDK Flight Recorder event of the "FluffyTest" category, and
+ * reported to the registered listeners such as {@link FixtureCostExtension}. When neither is active, measuring costs
+ * a single check.
+ */
+final class FixtureEvents {
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static final Span NOOP = new Span(null, null, null, 0);
+
+    private FixtureEvents() {
+    }
+
+    enum Kind {
+        READ, PARSE, MUTATE, BIND;
+
+        private FixtureEvent newEvent() {
+            return switch (this) {
+                case READ -> new ReadEvent();
+                case PARSE -> new ParseEvent();
+                case MUTATE -> new MutateEvent();
+                case BIND -> new BindEvent();
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param resource The file or object read.
+         * @param detail   The mutator or the bound type, if any.
+         * @param bytes    The number of bytes read or parsed, 0 if unknown.
+         */
+        void onEvent(Kind kind, String resource, String detail, long bytes, long nanos);
+    }
+
+    static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Start measuring an operation on the given resource, which ends with {@link Span#end(String, long)}.
+     */
+    static Span start(Kind kind, Object resource) {
+        FixtureEvent event = kind.newEvent();
+        boolean recorded = event.isEnabled();
+        if (!recorded && LISTENERS.isEmpty()) {
+            return NOOP;
+        }
+        if (recorded) {
+            event.begin();
+        }
+        return new Span(kind, resource, recorded ? event : null, System.nanoTime());
+    }
+
+    /**
+     * @return A readable name of a mutator, lambdas are named after the class declaring them.
+     */
+    static String describe(Object mutator) {
+        String name = mutator.getClass().getName();
+        int lambda = name.indexOf("$$Lambda");
+        if (lambda > 0) {
+            return "lambda in " + name.substring(name.lastIndexOf('.') + 1, lambda);
+        }
+        return mutator.toString();
+    }
+
+    static final class Span {
+        private final Kind kind;
+        private final Object resource;
+        private final FixtureEvent event;
+        private final long start;
+
+        private Span(Kind kind, Object resource, FixtureEvent event, long start) {
+            this.kind = kind;
+            this.resource = resource;
+            this.event = event;
+            this.start = start;
+        }
+
+        void end(String detail, long bytes) {
+            if (kind == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - start;
+            String resourceName = String.valueOf(resource);
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.resource = resourceName;
+                    event.detail = detail;
+                    event.bytes = bytes;
+                    event.commit();
+                }
+            }
+            for (Listener listener : LISTENERS) {
+                listener.onEvent(kind, resourceName, detail, bytes, nanos);
+            }
+        }
+    }
+
+    @Category("FluffyTest")
+    abstract static class FixtureEvent extends Event {
+        @Label("Resource")
+        String resource;
+
+        @Label("Detail")
+        String detail;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.fluminis.fluffytest.Read")
+    @Label("Fixture Read")
+    @Description("Bytes of a fixture read from the disk, a jar or the classpath")
+    static final class ReadEvent extends FixtureEvent {
+    }
+
+    @Name("com.fluminis.fluffytest.Parse")
+    @Label("Fixture Parse")
+    @Description("Fixture parsed as a JsonNode tree")
+    static final class ParseEvent extends FixtureEvent {
+    }
+
+    @Name("com.fluminis.fluffytest.Mutate")
+    @Label("Fixture Mutate")
+    @Description("Mutator applied on a fixture, the detail is the mutator")
+    static final class MutateEvent extends FixtureEvent {
+    }
+
+    @Name("com.fluminis.fluffytest.Bind")
+    @Label("Fixture Bind")
+    @Description("Fixture unmarshalled as an object, the detail is the target type")
+    static final class BindEvent extends FixtureEvent {
+    }
+}
@@ -0,0 +1,37 @@
+package com.fluminis.fluffytest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor loading fixtures in the background.
+ * <p>
+ * Loading a fixture is mostly waiting for I/O, so virtual threads are used when the JVM has them (Java 21+). On older
+ * JVMs, a bounded pool of daemon threads is used instead.
+ */
+final class FixtureExecutor {
+
+    private static final ExecutorService EXECUTOR = create();
+
+    private FixtureExecutor() {
+    }
+
+    static ExecutorService get() {
+        return EXECUTOR;
+    }
+
+    private static ExecutorService create() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+            return Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "fluffytest-fixture-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
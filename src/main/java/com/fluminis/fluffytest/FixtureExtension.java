@@ -0,0 +1,164 @@
+package com.fluminis.fluffytest;
+
+import org.packagesettings.PackageLevelSettings;
+import org.packagesettings.Settings;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JUnit 5 extension injecting the fields and parameters annotated with {@link Fixture}.
+ * <pre>{@code
+ * @ExtendWith(FixtureExtension.class)
+ * class OrderTest {
+ *     @Fixture("in/order.json")
+ *     Reader order;
+ *
+ *     @Test
+ *     void shouldComputeTotal(@Fixture("in/big-order.json") Order bigOrder) {
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ * Before the first test of the class, every fixture declared by its fields, constructors and methods is read and
+ * parsed concurrently, so that tests only pay for their own mutations and binding. The fixtures are resolved with the
+ * PackageSettings of the test class: ressourceFolder, objectMapper and caches.
+ */
+public class FixtureExtension implements BeforeAllCallback, TestInstancePostProcessor, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FixtureExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws IllegalAccessException {
+        Class<?> testClass = context.getRequiredTestClass();
+        Map<String, Settings> settings = PackageLevelSettings.getFor(testClass);
+        ObjectMapper objectMapper = FluffyTestPackageSettings.OBJECT_MAPPER.getValue(settings, ObjectMappers::defaultObjectMapper);
+
+        Map<String, CompletableFuture<FileReader>> fixtures = new LinkedHashMap<>();
+        for (Class<?> clazz = testClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                prefetch(field.getAnnotation(Fixture.class), fixtures, settings, objectMapper);
+            }
+            for (Executable executable : clazz.getDeclaredConstructors()) {
+                prefetch(executable, fixtures, settings, objectMapper);
+            }
+            for (Executable executable : clazz.getDeclaredMethods()) {
+                prefetch(executable, fixtures, settings, objectMapper);
+            }
+        }
+        context.getStore(NAMESPACE).put(Prefetched.class, new Prefetched(settings, objectMapper, fixtures));
+
+        injectFields(context, testClass, null);
+    }
+
+    @Override
+    public void postProcessTestInstance(Object testInstance, ExtensionContext context) throws IllegalAccessException {
+        injectFields(context, testInstance.getClass(), testInstance);
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.isAnnotated(Fixture.class);
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Parameter parameter = parameterContext.getParameter();
+        String path = parameter.getAnnotation(Fixture.class).value();
+        try {
+            return valueOf(fixture(extensionContext, path), parameter.getParameterizedType());
+        } catch (RuntimeException e) {
+            throw new ParameterResolutionException(String.format("Could not inject %s in %s", path, parameter), e);
+        }
+    }
+
+    private static void prefetch(Executable executable, Map<String, CompletableFuture<FileReader>> fixtures, Map<String, Settings> settings, ObjectMapper objectMapper) {
+        for (Parameter parameter : executable.getParameters()) {
+            prefetch(parameter.getAnnotation(Fixture.class), fixtures, settings, objectMapper);
+        }
+    }
+
+    private static void prefetch(Fixture fixture, Map<String, CompletableFuture<FileReader>> fixtures, Map<String, Settings> settings, ObjectMapper objectMapper) {
+        if (fixture != null) {
+            fixtures.computeIfAbsent(fixture.value(), path -> CompletableFuture.supplyAsync(
+                () -> load(path, settings, objectMapper), FixtureExecutor.get()));
+        }
+    }
+
+    private static FileReader load(String path, Map<String, Settings> settings, ObjectMapper objectMapper) {
+        return TestUtils.read(path, settings).withObjectMapper(objectMapper).load();
+    }
+
+    /**
+     * Inject the static fields when testInstance is null, the instance fields otherwise.
+     */
+    private static void injectFields(ExtensionContext context, Class<?> testClass, Object testInstance) throws IllegalAccessException {
+        for (Class<?> clazz = testClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                Fixture fixture = field.getAnnotation(Fixture.class);
+                if (fixture != null && Modifier.isStatic(field.getModifiers()) == (testInstance == null)) {
+                    field.setAccessible(true);
+                    field.set(testInstance, valueOf(fixture(context, fixture.value()), field.getGenericType()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The prefetched fixture, waiting for it if needed, or a fixture read now if it was not declared on the
+     * test class, e.g. a parameter of a method inherited from an interface.
+     */
+    private static FileReader fixture(ExtensionContext context, String path) {
+        Prefetched prefetched = context.getStore(NAMESPACE).get(Prefetched.class, Prefetched.class);
+        if (prefetched == null) {
+            Map<String, Settings> settings = PackageLevelSettings.getFor(context.getRequiredTestClass());
+            return load(path, settings, FluffyTestPackageSettings.OBJECT_MAPPER.getValue(settings, ObjectMappers::defaultObjectMapper));
+        }
+        CompletableFuture<FileReader> fixture = prefetched.fixtures().get(path);
+        if (fixture == null) {
+            return load(path, prefetched.settings(), prefetched.objectMapper());
+        }
+        try {
+            return fixture.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * @return What to inject for the given type, always built from a fork so that tests can't see each other mutations.
+     */
+    private static Object valueOf(FileReader fixture, Type type) {
+        FileReader reader = fixture.fork();
+        if (type == Reader.class || type == FileReader.class) {
+            return reader;
+        }
+        if (type == String.class) {
+            return reader.asString();
+        }
+        if (type instanceof Class<?> clazz && JsonNode.class.isAssignableFrom(clazz)) {
+            return reader.asJsonNode();
+        }
+        return reader.asObject(type);
+    }
+
+    private record Prefetched(Map<String, Settings> settings, ObjectMapper objectMapper, Map<String, CompletableFuture<FileReader>> fixtures) {
+    }
+}
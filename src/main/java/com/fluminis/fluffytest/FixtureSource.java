@@ -0,0 +1,249 @@
+package com.fluminis.fluffytest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Where the bytes of a fixture come from: a file, an entry of a jar, or any other URL of the classpath.
+ * <p>
+ * Content is always handed to Jackson as bytes, so that it can use its UTF-8 parser. A String is only decoded when
+ * asked for.
+ */
+abstract class FixtureSource {
+
+    static FixtureSource of(Path path) {
+        return new PathSource(path);
+    }
+
+    /**
+     * @return A source reading the resource as a Path when it is a file, otherwise through the URL stream, e.g. for the
+     * entries of jars.
+     */
+    static FixtureSource of(URL url) {
+        URI uri = uriOf(url);
+        return uri != null && "file".equals(uri.getScheme()) ? new PathSource(Paths.get(uri)) : new UrlSource(url);
+    }
+
+    /**
+     * List the files of a folder of the classpath, or of a jar of the classpath. A jar is only opened as a FileSystem
+     * while it is listed, its files are then read through their URL.
+     *
+     * @param glob Matched against the path of the files relative to the folder.
+     * @return The files sorted by relative path, or null if the folder can't be listed.
+     */
+    static List<FixtureSource> list(URL folder, String glob) throws IOException {
+        URI uri = uriOf(folder);
+        if (uri != null && "file".equals(uri.getScheme())) {
+            return list(Paths.get(uri), glob);
+        }
+        if (uri != null && "jar".equals(uri.getScheme())) {
+            String rawSpec = uri.getRawSchemeSpecificPart();
+            String spec = uri.getSchemeSpecificPart();
+            int rawSeparator = rawSpec.indexOf("!/");
+            int separator = spec.indexOf("!/");
+            if (rawSeparator > 0 && separator > 0) {
+                URI jar = URI.create("jar:" + rawSpec.substring(0, rawSeparator));
+                FileSystem fileSystem;
+                boolean opened;
+                try {
+                    fileSystem = FileSystems.newFileSystem(jar, Map.of());
+                    opened = true;
+                } catch (FileSystemAlreadyExistsException e) {
+                    fileSystem = FileSystems.getFileSystem(jar);
+                    opened = false;
+                }
+                try {
+                    return list(fileSystem.getPath(spec.substring(separator + 1)), glob);
+                } finally {
+                    if (opened) {
+                        fileSystem.close();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<FixtureSource> list(Path root, String glob) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return null;
+        }
+        PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + glob);
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk
+                    .filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(root.relativize(file)))
+                    .sorted(Comparator.comparing(file -> root.relativize(file).toString()))
+                    .toList();
+        }
+        List<FixtureSource> sources = new ArrayList<>(files.size());
+        for (Path file : files) {
+            sources.add(file.getFileSystem() == FileSystems.getDefault() ? new PathSource(file) : new UrlSource(file.toUri().toURL()));
+        }
+        return sources;
+    }
+
+    private static URI uriOf(URL url) {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The path of the source when it has one, used as key by the {@link FixtureCache}.
+     */
+    abstract Path path();
+
+    abstract byte[] readAllBytes() throws IOException;
+
+    abstract InputStream openStream() throws IOException;
+
+    /**
+     * @return A parser reading the bytes of the source incrementally. They are reported as read once the parser reaches
+     * the end of the source or is closed, so the time of the read includes the parsing done meanwhile.
+     */
+    final JsonParser createParser(ObjectMapper objectMapper) throws IOException {
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.READ, this);
+        return objectMapper.createParser(new CountingInputStream(openStream(), span));
+    }
+
+    private static final class PathSource extends FixtureSource {
+        private final Path path;
+
+        private PathSource(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        Path path() {
+            return path;
+        }
+
+        @Override
+        byte[] readAllBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        InputStream openStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public String toString() {
+            return path.toString();
+        }
+    }
+
+    private static final class UrlSource extends FixtureSource {
+        private final URL url;
+
+        private UrlSource(URL url) {
+            this.url = url;
+        }
+
+        @Override
+        Path path() {
+            return null;
+        }
+
+        @Override
+        byte[] readAllBytes() throws IOException {
+            try (InputStream stream = openStream()) {
+                return stream.readAllBytes();
+            }
+        }
+
+        @Override
+        InputStream openStream() throws IOException {
+            URLConnection connection = url.openConnection();
+            // a jar is then closed with the stream, instead of being kept open by the JDK until the JVM exits
+            connection.setUseCaches(false);
+            return connection.getInputStream();
+        }
+
+        @Override
+        public String toString() {
+            return url.toString();
+        }
+    }
+
+    /**
+     * Count the bytes read from a stream, and end the READ span with them at the end of the stream or when it is closed.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final FixtureEvents.Span span;
+        private long count;
+        private boolean ended;
+
+        private CountingInputStream(InputStream in, FixtureEvents.Span span) {
+            super(in);
+            this.span = span;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read < 0) {
+                end();
+            } else {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read < 0) {
+                end();
+            } else {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            end();
+            super.close();
+        }
+
+        private void end() {
+            if (!ended) {
+                ended = true;
+                span.end(null, count);
+            }
+        }
+    }
+}
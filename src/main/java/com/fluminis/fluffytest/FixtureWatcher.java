@@ -0,0 +1,127 @@
+package com.fluminis.fluffytest;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watch the folders of the files of a {@link FixtureCache}, and evict the entries of the files created, modified or
+ * deleted as soon as the file system reports it. Events are processed by a single daemon thread, until the watcher is
+ * closed.
+ */
+final class FixtureWatcher implements Runnable {
+
+    private final FixtureCache cache;
+    private final WatchService service;
+    private final Map<Path, WatchKey> keys = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> folders = new ConcurrentHashMap<>();
+
+    private FixtureWatcher(FixtureCache cache, WatchService service) {
+        this.cache = cache;
+        this.service = service;
+    }
+
+    /**
+     * @return A watcher of the default file system, or null if it can't be watched.
+     */
+    static FixtureWatcher start(FixtureCache cache) {
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+        FixtureWatcher watcher = new FixtureWatcher(cache, service);
+        Thread thread = new Thread(watcher, "fluffytest-fixture-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    /**
+     * Watch the folder of the given file, to be called before the file is read.
+     *
+     * @return Whether the changes of the file are reported, otherwise the file must be checked on each read.
+     */
+    boolean watch(Path file) {
+        Path folder = file.getParent();
+        if (folder == null || file.getFileSystem() != FileSystems.getDefault()) {
+            return false;
+        }
+        if (keys.containsKey(folder)) {
+            return true;
+        }
+        synchronized (this) {
+            if (keys.containsKey(folder)) {
+                return true;
+            }
+            try {
+                WatchKey key = folder.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                folders.put(key, folder);
+                keys.put(folder, key);
+                return true;
+            } catch (IOException | ClosedWatchServiceException e) {
+                // e.g. too many watched folders
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stop watching every folder, the thread ends once it sees the service closed.
+     */
+    void close() {
+        try {
+            service.close();
+        } catch (IOException e) {
+            // nothing more to watch anyway
+        }
+    }
+
+    /**
+     * @return Whether the changes of the given file are already reported.
+     */
+    boolean isWatching(Path file) {
+        return file.getParent() != null && keys.containsKey(file.getParent());
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path folder = folders.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        cache.invalidateAll();
+                    } else if (folder != null) {
+                        cache.invalidate(folder.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset() && folder != null) {
+                    // the folder itself was deleted or moved
+                    synchronized (this) {
+                        folders.remove(key);
+                        keys.remove(folder);
+                    }
+                    cache.invalidateFolder(folder);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // nothing left to watch
+        }
+    }
+}
@@ -8,4 +8,10 @@ public class FluffyTestPackageSettings {
     public static final Field<ObjectMapper> OBJECT_MAPPER = new Field<>("objectMapper", ObjectMapper.class);
 
     public static final Field<String> RESSOURCE_FOLDER = new Field<>("ressourceFolder", String.class);
+
+    public static final Field<FixtureCache> FIXTURE_CACHE = new Field<>("fixtureCache", FixtureCache.class);
+
+    public static final Field<BinaryFixtureCache> BINARY_CACHE = new Field<>("binaryCache", BinaryFixtureCache.class);
+
+    public static final Field<OffHeapFixtureStore> OFF_HEAP_STORE = new Field<>("offHeapStore", OffHeapFixtureStore.class);
 }
\ No newline at end of file
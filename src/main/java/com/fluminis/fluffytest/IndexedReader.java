@@ -0,0 +1,270 @@
+package com.fluminis.fluffytest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A Reader which never builds the JsonNode tree of the file unless {@link #asJsonNode()} is called, created by
+ * {@link TestUtils#readIndexed(String)}.
+ * <p>
+ * The file is indexed in a single pass (see {@link JsonTape}), and:<ul>
+ * <li>{@link #asObject(Class)} binds from the bytes of the file,
+ * <li>{@link #asObject(String, Class)} and {@link #at(String)} jump to the value and only parse its bytes,
+ * <li>the mutators of {@link Mutators} and {@link MutationPlan}s are kept aside, and applied together on the next read
+ * by rewriting the document token by token, so only the values they set or copy are built. The rewritten bytes are
+ * indexed again and replace those of the file.
+ * </ul>
+ * Other mutators, and {@link #asJsonNode()}, build the whole tree, which then behaves as with {@link FileReader}. Paths
+ * of the mutators are checked when the content is read, not when they are added.
+ */
+public class IndexedReader implements Reader {
+
+    private final FixtureSource source;
+    private JsonTape tape;
+    private StreamingRewriter patches;
+    private JsonTree tree;
+    private ObjectMapper objectMapper;
+
+    IndexedReader(FixtureSource source) {
+        this.source = source;
+        this.patches = StreamingRewriter.of(this);
+    }
+
+    public IndexedReader withObjectMapper(ObjectMapper mapper) {
+        this.objectMapper = mapper;
+        return this;
+    }
+
+    public IndexedReader mutate(Function<String, String> mutator) {
+        String current = asString();
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.MUTATE, source);
+        byte[] mutated = PlaceholderReplacer.apply(mutator, current, getObjectMapper()).getBytes(UTF_8);
+        span.end(FixtureEvents.describe(mutator), 0);
+        this.tape = index(mutated);
+        this.patches = StreamingRewriter.of(this);
+        this.tree = null;
+        return this;
+    }
+
+    public IndexedReader mutate(BiConsumer<JsonNode, ObjectMapper> mutator) {
+        if (tree == null && patches.rejection(mutator) == null) {
+            patches.mutate(mutator);
+            return this;
+        }
+        JsonTree current = getTree();
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.MUTATE, source);
+        current.apply(mutator, getObjectMapper());
+        span.end(FixtureEvents.describe(mutator), 0);
+        return this;
+    }
+
+    public IndexedReader fork() {
+        IndexedReader fork = new IndexedReader(source);
+        fork.tape = tape;
+        fork.patches = patches.fork();
+        fork.tree = tree == null ? null : tree.fork();
+        fork.objectMapper = objectMapper;
+        return fork;
+    }
+
+    public String asString() {
+        if (tree == null) {
+            return new String(getTape().bytes(), UTF_8);
+        }
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = getObjectMapper().createGenerator(writer)) {
+            getObjectMapper().writeTree(generator, tree.readOnly());
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not write %s", source), e);
+        }
+        return writer.toString();
+    }
+
+    public <T> T asObject(Class<T> clazz) {
+        return readAsObject(null, ObjectMappers.readerFor(getObjectMapper(), clazz));
+    }
+
+    public <T> T asObject(TypeReference<T> typeReference) {
+        return readAsObject(null, ObjectMappers.readerFor(getObjectMapper(), typeReference));
+    }
+
+    public <T> T asObject(String path, Class<T> clazz) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), clazz));
+    }
+
+    public <T> T asObject(String path, TypeReference<T> typeReference) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), typeReference));
+    }
+
+    public <T> Stream<T> stream(Class<T> clazz) {
+        return JsonStreams.stream(elements(null, clazz));
+    }
+
+    public <T> Stream<T> stream(String path, Class<T> clazz) {
+        return JsonStreams.stream(elements(JsonPath.compile(path), clazz));
+    }
+
+    public <T> Iterator<T> iterator(Class<T> clazz) {
+        return elements(null, clazz);
+    }
+
+    /**
+     * Build the whole tree, which replaces the index from now on.
+     */
+    public <T extends JsonNode> T asJsonNode() {
+        return (T) getTree().mutable();
+    }
+
+    public <T extends JsonNode> T at(String path) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), JsonNode.class));
+    }
+
+    /**
+     * @return The number of entries of the index, 0 once the tree is built.
+     */
+    int indexSize() {
+        return tree == null ? getTape().size() : 0;
+    }
+
+    /**
+     * @return A parser over the current content: the bytes of the file, with the pending mutators applied if any.
+     */
+    JsonParser createParser() throws IOException {
+        if (tree != null) {
+            return tree.readOnly().traverse(getObjectMapper());
+        }
+        return getTape().createParser(getObjectMapper(), 0);
+    }
+
+    /**
+     * @return The index of the current content, with the pending mutators applied once.
+     */
+    private JsonTape getTape() {
+        if (tape == null) {
+            byte[] bytes;
+            FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.READ, source);
+            try {
+                bytes = source.readAllBytes();
+            } catch (IOException e) {
+                throw new RuntimeException(String.format("Could not read %s", source), e);
+            }
+            span.end(null, bytes.length);
+            this.tape = index(bytes);
+        }
+        if (!patches.isEmpty()) {
+            this.tape = index(rewrite(tape));
+            this.patches = StreamingRewriter.of(this);
+        }
+        return tape;
+    }
+
+    private byte[] rewrite(JsonTape current) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(current.bytes().length);
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.MUTATE, source);
+        try (JsonParser parser = current.createParser(getObjectMapper(), 0);
+             JsonGenerator generator = getObjectMapper().createGenerator(out, JsonEncoding.UTF8)) {
+            // the copied values are read directly from the index, wherever they are
+            patches.rewrite(parser, generator, getObjectMapper(), path -> current.readTree(path, getObjectMapper()));
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        }
+        span.end(patches.toString(), out.size());
+        return out.toByteArray();
+    }
+
+    private JsonTape index(byte[] bytes) {
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.PARSE, source);
+        try {
+            JsonTape indexed = JsonTape.index(bytes, getObjectMapper());
+            span.end("index", bytes.length);
+            return indexed;
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        }
+    }
+
+    private JsonTree getTree() {
+        if (tree == null) {
+            try (JsonParser parser = createParser()) {
+                JsonNode root = getObjectMapper().readTree(parser);
+                this.tree = new JsonTree(root == null ? getObjectMapper().missingNode() : root, false);
+            } catch (IOException e) {
+                throw new RuntimeException(String.format("Could not read %s", source), e);
+            }
+            // the tree is the content from now on
+            this.tape = null;
+            this.patches = StreamingRewriter.of(this);
+        }
+        return tree;
+    }
+
+    /**
+     * Bind the value at the given path, or the whole content if the path is null. Without pending mutators, only the
+     * bytes of the value are parsed.
+     */
+    private <T> T readAsObject(JsonPath path, com.fasterxml.jackson.databind.ObjectReader reader) {
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.BIND, source);
+        try (JsonParser parser = createParser(path)) {
+            T object = reader.readValue(parser);
+            span.end(path == null ? reader.getValueType().toString() : reader.getValueType() + " at " + path, 0);
+            return object;
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        }
+    }
+
+    private <T> JsonStreams.ElementIterator<T> elements(JsonPath arrayPath, Class<T> clazz) {
+        try {
+            return JsonStreams.elements(createParser(arrayPath), null, ObjectMappers.readerFor(getObjectMapper(), clazz), source);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        }
+    }
+
+    /**
+     * @return A parser at the value of the given path, or over the whole content if the path is null.
+     */
+    private JsonParser createParser(JsonPath path) throws IOException {
+        if (path == null) {
+            return createParser();
+        }
+        if (tree == null) {
+            JsonTape current = getTape();
+            return current.createParser(getObjectMapper(), current.find(path));
+        }
+        JsonParser parser = createParser();
+        try {
+            JsonStreams.seek(parser, path);
+        } catch (RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+        return parser;
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+
+    private ObjectMapper getObjectMapper() {
+        if (objectMapper == null) {
+            this.objectMapper = ObjectMappers.current();
+        }
+        return objectMapper;
+    }
+}
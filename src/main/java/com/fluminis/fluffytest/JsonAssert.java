@@ -0,0 +1,361 @@
+package com.fluminis.fluffytest;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Assertions on the JSON content of a Reader, created by {@link TestUtils#assertJson(Reader)}.
+ * <pre>{@code
+ * assertJson(read("out/order.json"))
+ *     .ignoringPaths("order.updateTime", "order.lines.0.id")
+ *     .ignoringKeyOrder()
+ *     .isEqualTo(read("expected/order.json"));
+ * }</pre>
+ * Both documents are first compared token by token, without building anything. Only when they differ, they are
+ * parsed as trees and compared branch by branch: identical branches are skipped thanks to a hash computed once per
+ * node, and the differences are reported by path, in the same notation as {@link Mutators}.
+ */
+public final class JsonAssert {
+
+    public static final int DEFAULT_MAX_DIFFERENCES = 20;
+
+    private static final int MAX_VALUE_LENGTH = 80;
+
+    private final Source actual;
+    private final Ignored ignored = new Ignored();
+    private boolean ignoreKeyOrder;
+    private int maxDifferences = DEFAULT_MAX_DIFFERENCES;
+    private ObjectMapper objectMapper;
+
+    JsonAssert(Reader actual) {
+        this.actual = source(actual);
+    }
+
+    JsonAssert(String actualJson) {
+        this.actual = mapper -> mapper.createParser(actualJson);
+    }
+
+    /**
+     * Ignore the values at the given paths, e.g. <code>order.updateTime</code> or <code>order.lines.0.id</code>.
+     */
+    public JsonAssert ignoringPaths(String... paths) {
+        for (String path : paths) {
+            JsonPath jsonPath = JsonPath.compile(path);
+            Ignored node = ignored;
+            for (int segment = 0; segment < jsonPath.size(); segment++) {
+                node = node.children.computeIfAbsent(jsonPath.name(segment), __ -> new Ignored());
+            }
+            node.ignored = true;
+        }
+        return this;
+    }
+
+    /**
+     * Consider objects with the same fields in a different order as equal.
+     */
+    public JsonAssert ignoringKeyOrder() {
+        this.ignoreKeyOrder = true;
+        return this;
+    }
+
+    /**
+     * @param maxDifferences The number of differences after which the comparison stops, {@value #DEFAULT_MAX_DIFFERENCES}
+     *                       by default.
+     */
+    public JsonAssert withMaxDifferences(int maxDifferences) {
+        if (maxDifferences < 1) {
+            throw new IllegalArgumentException("maxDifferences should be at least 1: " + maxDifferences);
+        }
+        this.maxDifferences = maxDifferences;
+        return this;
+    }
+
+    /**
+     * Specify which ObjectMapper to use to parse the documents.
+     */
+    public JsonAssert withObjectMapper(ObjectMapper mapper) {
+        this.objectMapper = mapper;
+        return this;
+    }
+
+    /**
+     * @throws AssertionError listing the differences by path
+     */
+    public JsonAssert isEqualTo(Reader expected) {
+        return isEqualTo(source(expected));
+    }
+
+    /**
+     * See {@link #isEqualTo(Reader)}.
+     */
+    public JsonAssert isEqualTo(String expectedJson) {
+        return isEqualTo(mapper -> mapper.createParser(expectedJson));
+    }
+
+    /**
+     * See {@link #isEqualTo(Reader)}.
+     */
+    public JsonAssert isEqualTo(JsonNode expected) {
+        return isEqualTo(mapper -> expected.traverse(mapper));
+    }
+
+    private JsonAssert isEqualTo(Source expected) {
+        ObjectMapper mapper = objectMapper == null ? ObjectMappers.current() : objectMapper;
+        try {
+            if (sameTokens(expected, mapper)) {
+                return this;
+            }
+            List<String> differences = new ArrayList<>();
+            Comparison comparison = new Comparison(differences);
+            comparison.compare("", readTree(expected, mapper), readTree(actual, mapper), ignored);
+            if (!differences.isEmpty()) {
+                StringBuilder message = new StringBuilder("JSON documents are different:");
+                for (String difference : differences) {
+                    message.append("\n  ").append(difference);
+                }
+                if (comparison.truncated) {
+                    message.append("\n  ... stopped after ").append(maxDifferences).append(" differences");
+                }
+                throw new AssertionError(message.toString());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not compare JSON documents", e);
+        }
+        return this;
+    }
+
+    private static Source source(Reader reader) {
+        return mapper -> JsonStreams.createParser(reader, mapper);
+    }
+
+    private static JsonNode readTree(Source source, ObjectMapper mapper) throws IOException {
+        try (JsonParser parser = source.createParser(mapper)) {
+            JsonNode tree = mapper.readTree(parser);
+            return tree == null ? mapper.missingNode() : tree;
+        }
+    }
+
+    /**
+     * @return Whether both documents have the same tokens, values at ignored paths apart.
+     */
+    private boolean sameTokens(Source expected, ObjectMapper mapper) throws IOException {
+        try (JsonParser expectedParser = expected.createParser(mapper);
+             JsonParser actualParser = actual.createParser(mapper)) {
+            // the position in the ignored paths of each enclosing object or array, null when nothing below is ignored
+            Deque<Frame> frames = new ArrayDeque<>();
+            JsonToken token;
+            while ((token = expectedParser.nextToken()) != null) {
+                if (actualParser.nextToken() != token) {
+                    return false;
+                }
+                Frame frame = frames.peek();
+                if (token == JsonToken.FIELD_NAME) {
+                    if (!expectedParser.currentName().equals(actualParser.currentName())) {
+                        return false;
+                    }
+                    frame.name = expectedParser.currentName();
+                    continue;
+                }
+                if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                    frames.pop();
+                    continue;
+                }
+                Ignored position = frame == null ? ignored : frame.child();
+                if (position != null && position.ignored) {
+                    expectedParser.skipChildren();
+                    actualParser.skipChildren();
+                } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    frames.push(new Frame(token == JsonToken.START_ARRAY, position));
+                } else if (token.isScalarValue() && !Objects.equals(expectedParser.getText(), actualParser.getText())) {
+                    return false;
+                }
+            }
+            return actualParser.nextToken() == null;
+        }
+    }
+
+    private static String describe(JsonNode node) {
+        if (node.isMissingNode()) {
+            return "nothing";
+        }
+        String text = node.toString();
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+    }
+
+    private static String child(String path, String segment) {
+        return path.isEmpty() ? segment : path + "." + segment;
+    }
+
+    private static String displayed(String path) {
+        return path.isEmpty() ? "<root>" : path;
+    }
+
+    private static final class Frame {
+        private final boolean array;
+        private final Ignored ignored;
+        private String name;
+        private int index = -1;
+
+        private Frame(boolean array, Ignored ignored) {
+            this.array = array;
+            this.ignored = ignored;
+        }
+
+        private Ignored child() {
+            if (array) {
+                index++;
+            }
+            return ignored == null ? null : ignored.children.get(array ? String.valueOf(index) : name);
+        }
+    }
+
+    /**
+     * The ignored paths, as a trie of their segments.
+     */
+    private static final class Ignored {
+        private final Map<String, Ignored> children = new HashMap<>();
+        private boolean ignored;
+    }
+
+    private final class Comparison {
+        private final List<String> differences;
+        private final Map<JsonNode, Long> hashes = new IdentityHashMap<>();
+        /**
+         * Whether a difference was found after the first maxDifferences ones.
+         */
+        private boolean truncated;
+
+        private Comparison(List<String> differences) {
+            this.differences = differences;
+        }
+
+        private void compare(String path, JsonNode expected, JsonNode actual, Ignored ignored) {
+            if (ignored != null && ignored.ignored) {
+                return;
+            }
+            if (differences.size() >= maxDifferences) {
+                // only tell whether the comparison was cut short
+                truncated |= hash(expected, ignored) != hash(actual, ignored);
+                return;
+            }
+            // equal hashes are only confirmed once, at the top of an identical branch
+            if (hash(expected, ignored) == hash(actual, ignored) && (ignored == null || ignored.children.isEmpty()) && expected.equals(actual)) {
+                return;
+            }
+            if (expected.isObject() && actual.isObject()) {
+                compareObjects(path, expected, actual, ignored);
+            } else if (expected.isArray() && actual.isArray()) {
+                compareArrays(path, expected, actual, ignored);
+            } else if (!expected.equals(actual)) {
+                differences.add(String.format("%s: expected %s but was %s", displayed(path), describe(expected), describe(actual)));
+            }
+        }
+
+        private void compareObjects(String path, JsonNode expected, JsonNode actual, Ignored ignored) {
+            for (Map.Entry<String, JsonNode> field : expected.properties()) {
+                Ignored child = ignored == null ? null : ignored.children.get(field.getKey());
+                JsonNode actualValue = actual.get(field.getKey());
+                if (child != null && child.ignored) {
+                    continue;
+                }
+                if (actualValue == null) {
+                    add(String.format("%s: missing, expected %s", child(path, field.getKey()), describe(field.getValue())));
+                } else {
+                    compare(child(path, field.getKey()), field.getValue(), actualValue, child);
+                }
+            }
+            for (Iterator<String> names = actual.fieldNames(); names.hasNext(); ) {
+                String name = names.next();
+                Ignored child = ignored == null ? null : ignored.children.get(name);
+                if (!expected.has(name) && (child == null || !child.ignored)) {
+                    add(String.format("%s: unexpected %s", child(path, name), describe(actual.get(name))));
+                }
+            }
+            if (!ignoreKeyOrder && !truncated && expected.size() == actual.size()) {
+                List<String> expectedNames = new ArrayList<>();
+                expected.fieldNames().forEachRemaining(expectedNames::add);
+                List<String> actualNames = new ArrayList<>();
+                actual.fieldNames().forEachRemaining(actualNames::add);
+                if (!expectedNames.equals(actualNames) && actualNames.containsAll(expectedNames)) {
+                    add(String.format("%s: fields in a different order, expected %s but was %s", displayed(path), expectedNames, actualNames));
+                }
+            }
+        }
+
+        private void compareArrays(String path, JsonNode expected, JsonNode actual, Ignored ignored) {
+            int size = Math.min(expected.size(), actual.size());
+            for (int i = 0; i < size; i++) {
+                String index = String.valueOf(i);
+                compare(child(path, index), expected.get(i), actual.get(i), ignored == null ? null : ignored.children.get(index));
+            }
+            if (expected.size() != actual.size()) {
+                add(String.format("%s: expected %d elements but was %d", displayed(path), expected.size(), actual.size()));
+            }
+        }
+
+        private void add(String difference) {
+            if (differences.size() < maxDifferences) {
+                differences.add(difference);
+            } else {
+                truncated = true;
+            }
+        }
+
+        /**
+         * @return A hash of the node and its children, values at ignored paths apart, computed once per node.
+         */
+        private long hash(JsonNode node, Ignored ignored) {
+            if (!node.isContainerNode()) {
+                return mix(node.hashCode());
+            }
+            Long cached = hashes.get(node);
+            if (cached != null) {
+                return cached;
+            }
+            long hash = node.isArray() ? 1 : 2;
+            if (node.isArray()) {
+                for (int i = 0; i < node.size(); i++) {
+                    Ignored child = ignored == null ? null : ignored.children.get(String.valueOf(i));
+                    hash = 31 * hash + (child != null && child.ignored ? 0 : hash(node.get(i), child));
+                }
+            } else {
+                for (Map.Entry<String, JsonNode> field : node.properties()) {
+                    Ignored child = ignored == null ? null : ignored.children.get(field.getKey());
+                    if (child == null || !child.ignored) {
+                        long fieldHash = mix(field.getKey().hashCode() * 31L + hash(field.getValue(), child));
+                        // a sum does not depend on the order of the fields
+                        hash = ignoreKeyOrder ? hash + fieldHash : 31 * hash + fieldHash;
+                    }
+                }
+            }
+            hashes.put(node, hash);
+            return hash;
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            return value ^ value >>> 33;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Source {
+        JsonParser createParser(ObjectMapper objectMapper) throws IOException;
+    }
+}
@@ -0,0 +1,102 @@
+package com.fluminis.fluffytest;
+
+/**
+ * A path in the JSON structure using dot notation for nested fields, and numbers for the elements of an array,
+ * e.g. <code>foo.bar.0.buzz</code>.
+ * <p>
+ * The path is parsed once, so a JsonPath used by many {@link Mutators} can be kept as a constant:
+ * <pre>{@code
+ * static final JsonPath FIRST_LINE_PRICE = JsonPath.compile("order.lines.0.price");
+ *
+ * read("in/order.json").mutate(setValue(FIRST_LINE_PRICE, 12.5));
+ * }</pre>
+ */
+public final class JsonPath {
+
+    private final String path;
+    private final String[] names;
+    private final int[] indexes;
+
+    private JsonPath(String path, String[] names, int[] indexes) {
+        this.path = path;
+        this.names = names;
+        this.indexes = indexes;
+    }
+
+    public static JsonPath compile(String path) {
+        String[] names = path.split("\\.", -1);
+        int[] indexes = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indexes[i] = Mutators.NUMBER.matcher(names[i]).matches() ? Integer.parseInt(names[i]) : -1;
+        }
+        return new JsonPath(path, names, indexes);
+    }
+
+    /**
+     * @return The number of segments of this path.
+     */
+    int size() {
+        return names.length;
+    }
+
+    String name(int segment) {
+        return names[segment];
+    }
+
+    boolean isIndex(int segment) {
+        return indexes[segment] >= 0;
+    }
+
+    int index(int segment) {
+        return indexes[segment];
+    }
+
+    /**
+     * @return This path followed by the segments of the given one.
+     */
+    JsonPath resolve(JsonPath relative) {
+        return compile(path + "." + relative.path);
+    }
+
+    /**
+     * @return The path of the parent of the given segment, ending with a dot, or an empty string for the first segment.
+     */
+    String context(int segment) {
+        StringBuilder context = new StringBuilder();
+        for (int i = 0; i < segment; i++) {
+            context.append(names[i]).append('.');
+        }
+        return context.toString();
+    }
+
+    IllegalArgumentException notFound(int segment) {
+        String context = context(segment);
+        return error(String.format("Could not find node %s in %s", names[segment], context), segment, context);
+    }
+
+    IllegalArgumentException notAnIndex(int segment) {
+        String context = context(segment);
+        return error(String.format("As %s is an array, '%s' should be a number", context, names[segment]), segment, context);
+    }
+
+    private IllegalArgumentException error(String message, int segment, String context) {
+        return new IllegalArgumentException(message
+                                            + "\n  " + context + names[segment]
+                                            + "\n  " + " ".repeat(context.length()) + "^".repeat(names[segment].length()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JsonPath other && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
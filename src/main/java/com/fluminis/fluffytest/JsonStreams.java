@@ -0,0 +1,288 @@
+package com.fluminis.fluffytest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.InputCoercionException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Helpers to read a JSON document token by token, without building its tree.
+ */
+final class JsonStreams {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private JsonStreams() {
+    }
+
+    /**
+     * @return A parser over the current content of the reader, without building a tree or a String when it can.
+     */
+    static JsonParser createParser(Reader reader, ObjectMapper objectMapper) throws IOException {
+        JsonParser parser = createOwnParser(reader);
+        return parser != null ? parser : objectMapper.createParser(reader.asString());
+    }
+
+    /**
+     * @return A parser over the current content of the reader, parsed with the ObjectMapper of the reader itself.
+     */
+    private static JsonParser createParser(Reader reader) throws IOException {
+        JsonParser parser = createOwnParser(reader);
+        // other readers only expose the content they parse through their tree
+        return parser != null ? parser : reader.<JsonNode>asJsonNode().traverse();
+    }
+
+    private static JsonParser createOwnParser(Reader reader) throws IOException {
+        if (reader instanceof FileReader fileReader) {
+            return fileReader.createParser();
+        }
+        if (reader instanceof ObjectReader objectReader) {
+            return objectReader.createParser();
+        }
+        if (reader instanceof IndexedReader indexedReader) {
+            return indexedReader.createParser();
+        }
+        return null;
+    }
+
+    /**
+     * Move the parser to the first token of the value at the given path, skipping every other value on the way.
+     *
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    static void seek(JsonParser parser, JsonPath path) throws IOException {
+        if (!parser.hasCurrentToken()) {
+            parser.nextToken();
+        }
+        for (int segment = 0; segment < path.size(); segment++) {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT && !path.isIndex(segment)) {
+                seekField(parser, path, segment);
+            } else if (token == JsonToken.START_ARRAY && path.isIndex(segment)) {
+                seekElement(parser, path, segment);
+            } else {
+                throw path.notFound(segment);
+            }
+        }
+    }
+
+    private static void seekField(JsonParser parser, JsonPath path, int segment) throws IOException {
+        String name = path.name(segment);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            if (name.equals(fieldName)) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw path.notFound(segment);
+    }
+
+    private static void seekElement(JsonParser parser, JsonPath path, int segment) throws IOException {
+        int index = path.index(segment);
+        for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+            if (i == index) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw path.notFound(segment);
+    }
+
+    /**
+     * @return An iterator binding the elements of the array at the given path, or of the top-level array if the path
+     * is null, one at a time. The parser is closed at the end of the array.
+     */
+    static <T> ElementIterator<T> elements(JsonParser parser, JsonPath arrayPath, com.fasterxml.jackson.databind.ObjectReader reader, Object source) {
+        try {
+            seekArray(parser, arrayPath, source);
+        } catch (IOException e) {
+            close(parser);
+            throw new RuntimeException(String.format("Could not read %s", source), e);
+        } catch (RuntimeException e) {
+            close(parser);
+            throw e;
+        }
+        return new ElementIterator<>(parser, reader, source);
+    }
+
+    /**
+     * Move the parser to the start of the array at the given path, or of the top-level array if the path is null.
+     */
+    private static void seekArray(JsonParser parser, JsonPath arrayPath, Object source) throws IOException {
+        if (arrayPath != null) {
+            seek(parser, arrayPath);
+        } else if (!parser.hasCurrentToken()) {
+            parser.nextToken();
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException(String.format("Expected an array in %s but found %s", source, parser.currentToken()));
+        }
+    }
+
+    /**
+     * Read the numbers of the array at the given path straight into a primitive array, without any tree or boxing.
+     */
+    static double[] doubles(Reader reader, String path) {
+        return readNumbers(reader, path, "double[]", (parser, arrayPath) -> {
+            double[] values = new double[INITIAL_CAPACITY];
+            int size = 0;
+            for (JsonToken token; (token = parser.nextToken()) != JsonToken.END_ARRAY; size++) {
+                checkNumber(token, true, arrayPath, size, reader);
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size] = parser.getDoubleValue();
+            }
+            return Arrays.copyOf(values, size);
+        });
+    }
+
+    /**
+     * See {@link #doubles(Reader, String)}, only integers are accepted.
+     */
+    static long[] longs(Reader reader, String path) {
+        return readNumbers(reader, path, "long[]", (parser, arrayPath) -> {
+            long[] values = new long[INITIAL_CAPACITY];
+            int size = 0;
+            for (JsonToken token; (token = parser.nextToken()) != JsonToken.END_ARRAY; size++) {
+                checkNumber(token, false, arrayPath, size, reader);
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size] = parser.getLongValue();
+            }
+            return Arrays.copyOf(values, size);
+        });
+    }
+
+    /**
+     * See {@link #doubles(Reader, String)}, only integers are accepted.
+     */
+    static int[] ints(Reader reader, String path) {
+        return readNumbers(reader, path, "int[]", (parser, arrayPath) -> {
+            int[] values = new int[INITIAL_CAPACITY];
+            int size = 0;
+            for (JsonToken token; (token = parser.nextToken()) != JsonToken.END_ARRAY; size++) {
+                checkNumber(token, false, arrayPath, size, reader);
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size] = parser.getIntValue();
+            }
+            return Arrays.copyOf(values, size);
+        });
+    }
+
+    private static <A> A readNumbers(Reader reader, String path, String type, NumberReader<A> numberReader) {
+        JsonPath arrayPath = JsonPath.compile(path);
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.BIND, reader);
+        try (JsonParser parser = createParser(reader)) {
+            seekArray(parser, arrayPath, reader);
+            A values;
+            try {
+                values = numberReader.read(parser, arrayPath);
+            } catch (InputCoercionException e) {
+                throw new IllegalArgumentException(String.format("Expected a number fitting in %s at %s.%d in %s but found %s",
+                    e.getTargetType().getName(), arrayPath, parser.getParsingContext().getCurrentIndex(), reader, parser.getText()), e);
+            }
+            span.end(type + " at " + path, 0);
+            return values;
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", reader), e);
+        }
+    }
+
+    private static void checkNumber(JsonToken token, boolean decimal, JsonPath arrayPath, int index, Reader reader) {
+        if (token != JsonToken.VALUE_NUMBER_INT && (!decimal || token != JsonToken.VALUE_NUMBER_FLOAT)) {
+            throw new IllegalArgumentException(String.format("Expected %s at %s.%d in %s but found %s",
+                decimal ? "a number" : "an integer", arrayPath, index, reader, token));
+        }
+    }
+
+    @FunctionalInterface
+    private interface NumberReader<A> {
+        A read(JsonParser parser, JsonPath arrayPath) throws IOException;
+    }
+
+    /**
+     * @return A sequential stream of the elements of the iterator, which closes the iterator when the stream is closed.
+     */
+    static <T> Stream<T> stream(ElementIterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+            .onClose(iterator::close);
+    }
+
+    private static void close(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // nothing more to read
+        }
+    }
+
+    static final class ElementIterator<T> implements Iterator<T>, Closeable {
+        private final JsonParser parser;
+        private final com.fasterxml.jackson.databind.ObjectReader reader;
+        private final Object source;
+        private boolean fetched;
+        private boolean closed;
+
+        private ElementIterator(JsonParser parser, com.fasterxml.jackson.databind.ObjectReader reader, Object source) {
+            this.parser = parser;
+            this.reader = reader;
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched && !closed) {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY || token == null) {
+                        close();
+                    }
+                } catch (IOException e) {
+                    close();
+                    throw new RuntimeException(String.format("Could not read %s", source), e);
+                }
+                fetched = true;
+            }
+            return !closed;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            try {
+                return reader.readValue(parser);
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException(String.format("Could not read %s", source), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                JsonStreams.close(parser);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.fluminis.fluffytest;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A structural index of a JSON document, built in a single pass over its bytes.
+ * <p>
+ * Every field name and value is an entry of the tape, in document order, with the offsets of its bytes. The entry of an
+ * object or an array also points to the entry following its last child, so that a path is found by jumping over the
+ * values outside of it, and any value can be parsed again from its own bytes. A few int per value are kept instead of
+ * a JsonNode.
+ */
+final class JsonTape {
+
+    private final byte[] bytes;
+    private final byte[] tokens;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] nexts;
+    private final String[] names;
+
+    private JsonTape(byte[] bytes, byte[] tokens, int[] starts, int[] ends, int[] nexts, String[] names) {
+        this.bytes = bytes;
+        this.tokens = tokens;
+        this.starts = starts;
+        this.ends = ends;
+        this.nexts = nexts;
+        this.names = names;
+    }
+
+    static JsonTape index(byte[] bytes, ObjectMapper objectMapper) throws IOException {
+        Builder builder = new Builder(Math.max(16, bytes.length / 16));
+        try (JsonParser parser = objectMapper.createParser(bytes)) {
+            int[] open = new int[16];
+            int depth = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                    int container = open[--depth];
+                    builder.ends[container] = offset(parser.currentLocation().getByteOffset());
+                    builder.nexts[container] = builder.size;
+                    continue;
+                }
+                int entry = builder.add(token, offset(parser.currentTokenLocation().getByteOffset()));
+                if (token == JsonToken.FIELD_NAME) {
+                    builder.names[entry] = parser.currentName();
+                } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    if (depth == open.length) {
+                        open = Arrays.copyOf(open, depth * 2);
+                    }
+                    open[depth++] = entry;
+                    continue;
+                } else {
+                    // strings are only decoded when asked for
+                    parser.finishToken();
+                    builder.ends[entry] = offset(parser.currentLocation().getByteOffset());
+                }
+                builder.nexts[entry] = entry + 1;
+            }
+        }
+        return builder.build(bytes);
+    }
+
+    private static int offset(long offset) {
+        if (offset < 0) {
+            throw new IllegalStateException("The parser does not report byte offsets");
+        }
+        return (int) offset;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return A parser over the bytes of the value of the given entry only, 0 for the whole document.
+     */
+    JsonParser createParser(ObjectMapper objectMapper, int entry) throws IOException {
+        if (tokens.length == 0) {
+            return objectMapper.createParser(bytes);
+        }
+        return objectMapper.createParser(bytes, starts[entry], ends[entry] - starts[entry]);
+    }
+
+    /**
+     * @return The value at the given path, materialized.
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    JsonNode readTree(JsonPath path, ObjectMapper objectMapper) {
+        try (JsonParser parser = createParser(objectMapper, find(path))) {
+            return objectMapper.readTree(parser);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", path), e);
+        }
+    }
+
+    /**
+     * @return The entry of the value at the given path, following the same rules as {@link JsonStreams#seek}.
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    int find(JsonPath path) {
+        int entry = 0;
+        for (int segment = 0; segment < path.size(); segment++) {
+            int token = tokens.length == 0 ? JsonTokenId.ID_NO_TOKEN : tokens[entry];
+            if (token == JsonTokenId.ID_START_OBJECT && !path.isIndex(segment)) {
+                entry = field(entry, path.name(segment));
+            } else if (token == JsonTokenId.ID_START_ARRAY && path.isIndex(segment)) {
+                entry = element(entry, path.index(segment));
+            } else {
+                entry = -1;
+            }
+            if (entry < 0) {
+                throw path.notFound(segment);
+            }
+        }
+        return entry;
+    }
+
+    private int field(int object, String name) {
+        for (int entry = object + 1; entry < nexts[object]; entry = nexts[entry + 1]) {
+            if (name.equals(names[entry])) {
+                return entry + 1;
+            }
+        }
+        return -1;
+    }
+
+    private int element(int array, int index) {
+        int entry = array + 1;
+        for (int i = 0; entry < nexts[array]; i++, entry = nexts[entry]) {
+            if (i == index) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number of entries of the tape.
+     */
+    int size() {
+        return tokens.length;
+    }
+
+    private static final class Builder {
+        private byte[] tokens;
+        private int[] starts;
+        private int[] ends;
+        private int[] nexts;
+        private String[] names;
+        private int size;
+
+        private Builder(int capacity) {
+            tokens = new byte[capacity];
+            starts = new int[capacity];
+            ends = new int[capacity];
+            nexts = new int[capacity];
+            names = new String[capacity];
+        }
+
+        private int add(JsonToken token, int start) {
+            if (size == tokens.length) {
+                int capacity = size + (size >> 1);
+                tokens = Arrays.copyOf(tokens, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                nexts = Arrays.copyOf(nexts, capacity);
+                names = Arrays.copyOf(names, capacity);
+            }
+            tokens[size] = (byte) token.id();
+            starts[size] = start;
+            return size++;
+        }
+
+        private JsonTape build(byte[] bytes) {
+            return new JsonTape(bytes, Arrays.copyOf(tokens, size), Arrays.copyOf(starts, size), Arrays.copyOf(ends, size),
+                Arrays.copyOf(nexts, size), Arrays.copyOf(names, size));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.fluminis.fluffytest;
+
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Copy-on-write holder of the JsonNode tree of a Reader.
+ * <p>
+ * A shared tree may be referenced by other readers (forks, fixture cache...) so it is never modified in place:
+ * mutators created by {@link Mutators} and {@link MutationPlan}s copy the nodes along the mutated paths and share
+ * everything else with the previous tree. Other mutators, or a call to {@link #mutable()}, make a private deep copy first.
+ */
+final class JsonTree {
+
+    private JsonNode root;
+    private boolean shared;
+
+    JsonTree(JsonNode root, boolean shared) {
+        this.root = root;
+        this.shared = shared;
+    }
+
+    /**
+     * @return The current tree, which must not be modified.
+     */
+    JsonNode readOnly() {
+        return root;
+    }
+
+    /**
+     * @return The current tree, private to the caller.
+     */
+    JsonNode mutable() {
+        if (shared) {
+            root = root.deepCopy();
+            shared = false;
+        }
+        return root;
+    }
+
+    void apply(BiConsumer<JsonNode, ObjectMapper> mutator, ObjectMapper objectMapper) {
+        if (shared) {
+            root = applyShared(root, mutator, objectMapper);
+        } else {
+            mutator.accept(root, objectMapper);
+        }
+    }
+
+    /**
+     * @return A tree sharing its nodes with this one. Both trees are copied on their next write.
+     */
+    JsonTree fork() {
+        shared = true;
+        return new JsonTree(root, true);
+    }
+
+    /**
+     * Apply the mutator without modifying the given node.
+     *
+     * @return The mutated node.
+     */
+    static JsonNode applyShared(JsonNode node, BiConsumer<JsonNode, ObjectMapper> mutator, ObjectMapper objectMapper) {
+        if (mutator instanceof PathMutator pathMutator) {
+            return pathMutator.applyShared(node, objectMapper);
+        }
+        if (mutator instanceof MutationPlan plan) {
+            return plan.applyShared(node, objectMapper);
+        }
+        JsonNode copy = node.deepCopy();
+        mutator.accept(copy, objectMapper);
+        return copy;
+    }
+}
@@ -0,0 +1,362 @@
+package com.fluminis.fluffytest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Many mutations of the JSON structure applied together in a single traversal of the tree.
+ * <p>
+ * The operations are merged by path, so operations sharing a prefix like <code>order.lines.0</code> only resolve it
+ * once. Every path is checked before anything is modified, and all the errors are reported at once.
+ * <pre>{@code
+ * static final MutationPlan CANCELLED_ORDER = MutationPlan.builder()
+ *     .setValue("order.status", "CANCELLED")
+ *     .setNull("order.lines.0.price")
+ *     .copy("order.customer.address", "order.delivery.address")
+ *     .build();
+ *
+ * Order order = read("in/order.json").mutate(CANCELLED_ORDER).asObject(Order.class);
+ * }</pre>
+ * A plan is immutable and can be applied to any number of readers. It has the same effect as the same {@link Mutators}
+ * applied one after the other: the sources of {@link Builder#copy(String, String)} are read before any modification,
+ * so a plan copying a value modified by an operation declared before the copy is rejected.
+ */
+public final class MutationPlan implements BiConsumer<JsonNode, ObjectMapper> {
+
+    private final List<Operation> operations;
+    private final Node root;
+
+    private MutationPlan(List<Operation> operations, Node root) {
+        this.operations = operations;
+        this.root = root;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @throws IllegalArgumentException listing every path of the plan which does not exist in the given tree
+     */
+    @Override
+    public void accept(JsonNode node, ObjectMapper objectMapper) {
+        Values values = prepare(node, objectMapper, false);
+        applyInPlace(node, root, values);
+    }
+
+    /**
+     * @return A new tree with the plan applied, sharing the nodes outside the mutated paths with the given one, which is
+     * left unchanged.
+     */
+    JsonNode applyShared(JsonNode node, ObjectMapper objectMapper) {
+        Values values = prepare(node, objectMapper, true);
+        return applyCopy(node, root, values);
+    }
+
+    List<Operation> operations() {
+        return operations;
+    }
+
+    @Override
+    public String toString() {
+        return operations.stream().map(Operation::toString).collect(Collectors.joining(", ", "MutationPlan(", ")"));
+    }
+
+    /**
+     * Compute the values to set and check every path against the tree, without modifying it.
+     */
+    private Values prepare(JsonNode node, ObjectMapper objectMapper, boolean shared) {
+        Values values = new Values(operations.size());
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            switch (operation.kind()) {
+                case SET_VALUE -> values.nodes[i] = objectMapper.valueToTree(operation.value());
+                case SET_NULL -> values.nodes[i] = NullNode.getInstance();
+                case COPY -> {
+                    JsonNode source = find(node, operation.source(), errors);
+                    if (source == null) {
+                        // already reported, the paths below this target can't be checked
+                        values.nodes[i] = MissingNode.getInstance();
+                    } else {
+                        // a shared tree is never modified, otherwise the source could be modified before being copied
+                        values.nodes[i] = shared ? source : source.deepCopy();
+                    }
+                }
+            }
+        }
+        check(node, root, values, errors);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Could not apply mutation plan:\n" + String.join("\n", errors));
+        }
+        return values;
+    }
+
+    private static JsonNode find(JsonNode node, JsonPath path, List<String> errors) {
+        for (int segment = 0; segment < path.size(); segment++) {
+            JsonNode child = get(node, path, segment);
+            if (child == null) {
+                errors.add(path.notFound(segment).getMessage());
+                return null;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Walk the trie along the tree as it will be once the operations of each level are applied.
+     */
+    private static void check(JsonNode node, Node trie, Values values, List<String> errors) {
+        for (int operation : trie.operations) {
+            JsonPath target = values.target(operation);
+            int last = target.size() - 1;
+            if (node instanceof ArrayNode && !target.isIndex(last)) {
+                errors.add(target.notAnIndex(last).getMessage());
+            } else if (!node.isContainerNode()) {
+                errors.add(target.notFound(last).getMessage());
+            }
+        }
+        for (Node child : trie.children.values()) {
+            JsonNode childNode = values.effectiveChild(node, trie, child);
+            if (childNode == null) {
+                errors.add(child.path.notFound(child.segment).getMessage());
+            } else if (!childNode.isMissingNode()) {
+                check(childNode, child, values, errors);
+            }
+        }
+    }
+
+    private static void applyInPlace(JsonNode node, Node trie, Values values) {
+        for (int operation : trie.operations) {
+            set(node, values.target(operation), values.nodes[operation]);
+        }
+        for (Node child : trie.children.values()) {
+            applyInPlace(get(node, child.path, child.segment), child, values);
+        }
+    }
+
+    private static JsonNode applyCopy(JsonNode node, Node trie, Values values) {
+        JsonNode copy = shallowCopy(node);
+        for (int operation : trie.operations) {
+            set(copy, values.target(operation), values.nodes[operation]);
+        }
+        for (Node child : trie.children.values()) {
+            JsonNode newChild = applyCopy(get(copy, child.path, child.segment), child, values);
+            if (copy instanceof ArrayNode arrayNode) {
+                arrayNode.set(child.path.index(child.segment), newChild);
+            } else {
+                ((ObjectNode) copy).set(child.path.name(child.segment), newChild);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Set the last segment of the path in its parent node, appending it if it is an index beyond the end of an array.
+     */
+    private static void set(JsonNode parent, JsonPath path, JsonNode value) {
+        int last = path.size() - 1;
+        if (parent instanceof ArrayNode arrayNode) {
+            int index = path.index(last);
+            if (index >= arrayNode.size()) {
+                arrayNode.insert(index, value);
+            } else {
+                arrayNode.set(index, value);
+            }
+        } else {
+            ((ObjectNode) parent).set(path.name(last), value);
+        }
+    }
+
+    private static JsonNode get(JsonNode parent, JsonPath path, int segment) {
+        return path.isIndex(segment) && parent.isArray() ? parent.get(path.index(segment)) : parent.get(path.name(segment));
+    }
+
+    private static JsonNode shallowCopy(JsonNode node) {
+        if (node instanceof ObjectNode objectNode) {
+            return objectNode.objectNode().setAll(objectNode);
+        }
+        return ((ArrayNode) node).arrayNode(node.size()).addAll((ArrayNode) node);
+    }
+
+    /**
+     * The value of each operation for one application of the plan.
+     */
+    private final class Values {
+        private final JsonNode[] nodes;
+
+        private Values(int operations) {
+            this.nodes = new JsonNode[operations];
+        }
+
+        private JsonPath target(int operation) {
+            return operations.get(operation).target();
+        }
+
+        /**
+         * @return The child as it will be once the operations of its parent are applied.
+         */
+        private JsonNode effectiveChild(JsonNode node, Node trie, Node child) {
+            String name = child.path.name(child.segment);
+            for (int i = trie.operations.size() - 1; i >= 0; i--) {
+                JsonPath target = target(trie.operations.get(i));
+                if (target.name(target.size() - 1).equals(name)) {
+                    return nodes[trie.operations.get(i)];
+                }
+            }
+            return get(node, child.path, child.segment);
+        }
+    }
+
+    enum Kind {
+        SET_VALUE, SET_NULL, COPY
+    }
+
+    /**
+     * @param source The path copied, only for {@link Kind#COPY}.
+     * @param value  The value set, only for {@link Kind#SET_VALUE}.
+     */
+    record Operation(Kind kind, JsonPath target, JsonPath source, Object value) {
+        /**
+         * @return The same operation, applied on the node at the given path.
+         */
+        Operation under(JsonPath parent) {
+            return new Operation(kind, parent.resolve(target), source == null ? null : parent.resolve(source), value);
+        }
+
+        @Override
+        public String toString() {
+            return switch (kind) {
+                case SET_VALUE -> "setValue(" + target + ")";
+                case SET_NULL -> "setNull(" + target + ")";
+                case COPY -> "copy(" + source + ", " + target + ")";
+            };
+        }
+    }
+
+    /**
+     * A segment of the paths of the plan, with the operations setting its direct children.
+     */
+    private static final class Node {
+        private final JsonPath path;
+        private final int segment;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private final List<Integer> operations = new ArrayList<>();
+
+        private Node(JsonPath path, int segment) {
+            this.path = path;
+            this.segment = segment;
+        }
+    }
+
+    public static final class Builder {
+        private final List<Operation> operations = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * See: {@link Mutators#setValue(String, Object)}
+         */
+        public Builder setValue(String path, Object value) {
+            return setValue(JsonPath.compile(path), value);
+        }
+
+        public Builder setValue(JsonPath path, Object value) {
+            operations.add(new Operation(Kind.SET_VALUE, path, null, value));
+            return this;
+        }
+
+        /**
+         * See: {@link Mutators#setNull(String)}
+         */
+        public Builder setNull(String path) {
+            return setNull(JsonPath.compile(path));
+        }
+
+        public Builder setNull(JsonPath path) {
+            operations.add(new Operation(Kind.SET_NULL, path, null, null));
+            return this;
+        }
+
+        /**
+         * See: {@link Mutators#copy(String, String)}. The source must not be modified by the operations declared before
+         * the copy.
+         */
+        public Builder copy(String source, String target) {
+            return copy(JsonPath.compile(source), JsonPath.compile(target));
+        }
+
+        public Builder copy(JsonPath source, JsonPath target) {
+            operations.add(new Operation(Kind.COPY, target, source, null));
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException listing every operation overridden by an operation declared after it on one
+         *                                  of its parents, which would silently discard it, and every copy whose source
+         *                                  is modified by an operation declared before it
+         */
+        public MutationPlan build() {
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < operations.size(); i++) {
+                for (int j = i + 1; j < operations.size(); j++) {
+                    Operation earlier = operations.get(i);
+                    Operation later = operations.get(j);
+                    if (isParent(later.target(), earlier.target())) {
+                        errors.add(String.format("%s overrides %s declared before it", later, earlier));
+                    }
+                    if (later.kind() == Kind.COPY && overlaps(later.source(), earlier.target())) {
+                        errors.add(String.format("%s reads %s, modified by %s declared before it", later, later.source(), earlier));
+                    }
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new IllegalArgumentException("Invalid mutation plan:\n" + String.join("\n", errors));
+            }
+            Node root = new Node(null, -1);
+            for (int i = 0; i < operations.size(); i++) {
+                JsonPath target = operations.get(i).target();
+                Node node = root;
+                for (int segment = 0; segment < target.size() - 1; segment++) {
+                    int index = segment;
+                    node = node.children.computeIfAbsent(target.name(segment), __ -> new Node(target, index));
+                }
+                node.operations.add(i);
+            }
+            return new MutationPlan(List.copyOf(operations), root);
+        }
+
+        private static boolean isParent(JsonPath parent, JsonPath child) {
+            return parent.size() < child.size() && startsWith(child, parent);
+        }
+
+        /**
+         * @return Whether one of the paths is the other one or one of its parents.
+         */
+        private static boolean overlaps(JsonPath path, JsonPath other) {
+            return path.size() <= other.size() ? startsWith(other, path) : startsWith(path, other);
+        }
+
+        private static boolean startsWith(JsonPath path, JsonPath prefix) {
+            for (int segment = 0; segment < prefix.size(); segment++) {
+                if (!prefix.name(segment).equals(path.name(segment))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.fluminis.fluffytest;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -29,11 +34,59 @@ public interface Mutators {
      *     "bar": "newValue"
      * }
      * }</pre>
+     * The placeholder is a regular expression, and <code>$</code> and <code>\</code> are special in the replacement, as
+     * for {@link String#replaceAll(String, String)}. See {@link Mutators#replacePlaceholders(String, Object)} to replace
+     * a literal placeholder.
      */
     static Function<String, String> replaceAll(String placeholder, String newValue) {
         return str -> str.replaceAll(placeholder, newValue);
     }
 
+    /**
+     * Replace all the occurrences of the literal <code>placeholder</code> by <code>newValue</code>.
+     * <p>
+     * The value is rendered as it would appear in a JSON string by the ObjectMapper of the Reader, e.g.
+     * <code>2025-06-04</code> for a LocalDate, and <code>\"</code> for a quote.
+     * <pre>{@code
+     * read("in/myfile.json").mutate(replacePlaceholders("NOW", LocalDate.of(2025, 6, 4)))
+     * }</pre>
+     * See: {@link Mutators#replacePlaceholders(Map)}
+     */
+    static Function<String, String> replacePlaceholders(String placeholder, Object newValue) {
+        return replacePlaceholders(Collections.singletonMap(placeholder, newValue));
+    }
+
+    /**
+     * Replace all the occurrences of each literal placeholder by its value, in a single pass over the content.
+     * <p>
+     * When placeholders overlap, the longest one wins, e.g. <code>UUID_10</code> is not replaced by the value of
+     * <code>UUID_1</code>. Values are rendered as they would appear in a JSON string by the ObjectMapper of the
+     * Reader. The returned function can be kept and applied on many files.
+     * <pre>{@code
+     * // before
+     * {
+     *     "id": "UUID_1",
+     *     "tenant": "TENANT_ID",
+     *     "date": "NOW"
+     * }
+     *
+     * read("in/myfile.json").mutate(replacePlaceholders(Map.of(
+     *     "UUID_1", "a3f5...",
+     *     "TENANT_ID", "fluffy",
+     *     "NOW", LocalDate.of(2025, 6, 4))))
+     *
+     * //after
+     * {
+     *     "id": "a3f5...",
+     *     "tenant": "fluffy",
+     *     "date": "2025-06-04"
+     * }
+     * }</pre>
+     */
+    static Function<String, String> replacePlaceholders(Map<String, ?> placeholders) {
+        return new PlaceholderReplacer(placeholders);
+    }
+
     /**
      * Sets null a specific field or a complex JsonNode in the JSON structure using dot notation for nested fields.
      * <p>
@@ -62,7 +115,20 @@ public interface Mutators {
      * }</pre>
      */
     static BiConsumer<JsonNode, ObjectMapper> setNull(String fieldName) {
-        return (root, __) -> Mutators.setNull(root, fieldName, "");
+        return setNull(JsonPath.compile(fieldName));
+    }
+
+    /**
+     * See: {@link Mutators#setNull(String)}
+     */
+    static BiConsumer<JsonNode, ObjectMapper> setNull(JsonPath path) {
+        return new PathMutator("setNull(" + path + ")", List.of(new MutationPlan.Operation(MutationPlan.Kind.SET_NULL, path, null, null)),
+            (root, __) -> Mutators.setNull(getDeepNode(root, path, path.size() - 1), path),
+            (root, __) -> copyOnWrite(root, path, 0, path.size() - 1, parent -> {
+                JsonNode copy = shallowCopy(parent);
+                Mutators.setNull(copy, path);
+                return copy;
+            }));
     }
 
     /**
@@ -89,7 +155,20 @@ public interface Mutators {
      * @throws IllegalArgumentException if parent fields don't exist
      */
     static BiConsumer<JsonNode, ObjectMapper> setValue(String fieldName, Object value) {
-        return (root, objectMapper) -> Mutators.setValue(root, objectMapper, fieldName, value, "");
+        return setValue(JsonPath.compile(fieldName), value);
+    }
+
+    /**
+     * See: {@link Mutators#setValue(String, Object)}
+     */
+    static BiConsumer<JsonNode, ObjectMapper> setValue(JsonPath path, Object value) {
+        return new PathMutator("setValue(" + path + ")", List.of(new MutationPlan.Operation(MutationPlan.Kind.SET_VALUE, path, null, value)),
+            (root, objectMapper) -> setNode(getDeepNode(root, path, path.size() - 1), path, objectMapper.valueToTree(value)),
+            (root, objectMapper) -> copyOnWrite(root, path, 0, path.size() - 1, parent -> {
+                JsonNode copy = shallowCopy(parent);
+                setNode(copy, path, objectMapper.valueToTree(value));
+                return copy;
+            }));
     }
 
     /**
@@ -113,12 +192,32 @@ public interface Mutators {
      */
     @SafeVarargs
     static BiConsumer<JsonNode, ObjectMapper> setValue(String fieldName, BiConsumer<JsonNode, ObjectMapper>... mutators) {
-        return (root, objectMapper) -> {
-            JsonNode commonNode = getDeepNode(root, fieldName, "");
-            for (BiConsumer<JsonNode, ObjectMapper> mutator : mutators) {
-                mutator.accept(commonNode, objectMapper);
-            }
-        };
+        return setValue(JsonPath.compile(fieldName), mutators);
+    }
+
+    /**
+     * See: {@link Mutators#setValue(String, BiConsumer[])}
+     */
+    @SafeVarargs
+    static BiConsumer<JsonNode, ObjectMapper> setValue(JsonPath path, BiConsumer<JsonNode, ObjectMapper>... mutators) {
+        // copied element by element: handing the generic array itself to another method may pollute the heap
+        List<BiConsumer<JsonNode, ObjectMapper>> nested = new ArrayList<>(mutators.length);
+        for (BiConsumer<JsonNode, ObjectMapper> mutator : mutators) {
+            nested.add(mutator);
+        }
+        return new PathMutator("setValue(" + path + ", " + nested.size() + " mutators)", PathMutator.operationsUnder(path, nested),
+            (root, objectMapper) -> {
+                JsonNode commonNode = getDeepNode(root, path, path.size());
+                for (BiConsumer<JsonNode, ObjectMapper> mutator : nested) {
+                    mutator.accept(commonNode, objectMapper);
+                }
+            },
+            (root, objectMapper) -> copyOnWrite(root, path, 0, path.size(), commonNode -> {
+                for (BiConsumer<JsonNode, ObjectMapper> mutator : nested) {
+                    commonNode = JsonTree.applyShared(commonNode, mutator, objectMapper);
+                }
+                return commonNode;
+            }));
     }
 
     /**
@@ -133,65 +232,99 @@ public interface Mutators {
      * }</pre>
      */
     static BiConsumer<JsonNode, ObjectMapper> copy(String sourceFieldName, String targetFieldName) {
-        return (root, objectMapper) -> {
-            JsonNode sourceNode = getDeepNode(root, sourceFieldName, "");
-            String[] tokens = targetFieldName.split("\\.(?=[^.]*$)", 2);
-            JsonNode targetParentNode = getDeepNode(root, tokens[0], "");
-            setValue(targetParentNode, objectMapper, tokens[1], sourceNode.deepCopy(), targetFieldName);
-        };
-    }
-
-    private static void setValue(JsonNode root, ObjectMapper objectMapper, String fieldName, Object value, String context) {
-        if (fieldName.contains(".")) {
-            String[] tokens = fieldName.split("\\.", 2);
-            setValue(getNode(root, tokens[0], context), objectMapper, tokens[1], value, context + tokens[0] + ".");
-            return;
-        }
-        if (root instanceof ArrayNode arrayNode) {
-            if (!isNumeric(fieldName)) {
-                throw new IllegalArgumentException(String.format("As %s is an array, '%s' should be a number", context, fieldName)
-                                                   + "\n  " + context + fieldName
-                                                   + "\n  " + " ".repeat(context.length()) + "^".repeat(fieldName.length()));
+        return copy(JsonPath.compile(sourceFieldName), JsonPath.compile(targetFieldName));
+    }
+
+    /**
+     * See: {@link Mutators#copy(String, String)}
+     */
+    static BiConsumer<JsonNode, ObjectMapper> copy(JsonPath source, JsonPath target) {
+        return new PathMutator("copy(" + source + ", " + target + ")", List.of(new MutationPlan.Operation(MutationPlan.Kind.COPY, target, source, null)),
+            (root, objectMapper) -> {
+                JsonNode sourceNode = getDeepNode(root, source, source.size());
+                setNode(getDeepNode(root, target, target.size() - 1), target, sourceNode.deepCopy());
+            },
+            (root, objectMapper) -> {
+                // a shared tree is never modified in place, so the source node can be shared as well
+                JsonNode sourceNode = getDeepNode(root, source, source.size());
+                return copyOnWrite(root, target, 0, target.size() - 1, parent -> {
+                    JsonNode copy = shallowCopy(parent);
+                    setNode(copy, target, sourceNode);
+                    return copy;
+                });
+            });
+    }
+
+    /**
+     * Set the last segment of the path in its parent node.
+     */
+    private static void setNode(JsonNode parent, JsonPath path, JsonNode value) {
+        int last = path.size() - 1;
+        if (parent instanceof ArrayNode arrayNode) {
+            if (!path.isIndex(last)) {
+                throw path.notAnIndex(last);
             }
-            int index = Integer.parseInt(fieldName);
+            int index = path.index(last);
             if (index >= arrayNode.size()) {
-                arrayNode.insert(index, objectMapper.valueToTree(value));
+                arrayNode.insert(index, value);
             } else {
-                arrayNode.set(index, objectMapper.valueToTree(value));
+                arrayNode.set(index, value);
             }
             return;
         }
-        ((ObjectNode) root).set(fieldName, objectMapper.valueToTree(value));
+        ((ObjectNode) parent).set(path.name(last), value);
+    }
+
+    private static void setNull(JsonNode parent, JsonPath path) {
+        ((ObjectNode) parent).set(path.name(path.size() - 1), NullNode.getInstance());
     }
 
-    private static JsonNode getDeepNode(JsonNode root, String fieldName, String context) {
-        if (fieldName.contains(".")) {
-            String[] tokens = fieldName.split("\\.", 2);
-            return getDeepNode(getNode(root, tokens[0], context), tokens[1], context + tokens[0] + ".");
+    /**
+     * @return The node reached by following the first segments of the path.
+     */
+    private static JsonNode getDeepNode(JsonNode root, JsonPath path, int segments) {
+        JsonNode node = root;
+        for (int i = 0; i < segments; i++) {
+            node = getNode(node, path, i);
         }
-        return getNode(root, fieldName, context);
+        return node;
     }
 
-    private static JsonNode getNode(JsonNode root, String fieldName, String context) {
-        JsonNode node = isNumeric(fieldName) ? root.get(Integer.parseInt(fieldName)) : root.get(fieldName);
+    private static JsonNode getNode(JsonNode parent, JsonPath path, int segment) {
+        JsonNode node = path.isIndex(segment) ? parent.get(path.index(segment)) : parent.get(path.name(segment));
         if (node == null) {
-            throw new IllegalArgumentException(String.format("Could not find node %s in %s", fieldName, context)
-                                               + "\n  " + context + fieldName
-                                               + "\n  " + " ".repeat(context.length()) + "^".repeat(fieldName.length()));
+            throw path.notFound(segment);
         }
         return node;
     }
 
-    private static boolean isNumeric(String strNum) {
-        return NUMBER.matcher(strNum).matches();
+    /**
+     * Copy the nodes from node to the node reached by following the path up to the given segment, which is replaced by
+     * the result of the update. Nodes outside of this path are shared with the original ones.
+     *
+     * @return The copied node.
+     */
+    private static JsonNode copyOnWrite(JsonNode node, JsonPath path, int segment, int segments, UnaryOperator<JsonNode> update) {
+        if (segment == segments) {
+            return update.apply(node);
+        }
+        JsonNode newChild = copyOnWrite(getNode(node, path, segment), path, segment + 1, segments, update);
+        JsonNode copy = shallowCopy(node);
+        if (copy instanceof ArrayNode arrayNode) {
+            arrayNode.set(path.index(segment), newChild);
+        } else {
+            ((ObjectNode) copy).set(path.name(segment), newChild);
+        }
+        return copy;
     }
 
-    private static void setNull(JsonNode root, String fieldName, String context) {
-        if (fieldName.contains(".")) {
-            String[] tokens = fieldName.split("\\.", 2);
-            setNull(getNode(root, tokens[0], context), tokens[1], context + tokens[0] + ".");
-        } else {
-            ((ObjectNode) root).set(fieldName, NullNode.getInstance());
+    private static JsonNode shallowCopy(JsonNode node) {
+        if (node instanceof ObjectNode objectNode) {
+            return objectNode.objectNode().setAll(objectNode);
+        }
+        if (node instanceof ArrayNode arrayNode) {
+            return arrayNode.arrayNode(arrayNode.size()).addAll(arrayNode);
         }
+        return node;
     }
 }
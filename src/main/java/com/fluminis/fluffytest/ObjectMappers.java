@@ -0,0 +1,96 @@
+package com.fluminis.fluffytest;
+
+import org.packagesettings.PackageLevelSettings;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Registry of the ObjectMappers used by the readers.
+ * <p>
+ * When no objectMapper is configured in the PackageSettings, every reader shares the same default ObjectMapper, so that
+ * Jackson serializers and deserializers are built once per JVM. Typed ObjectReader and ObjectWriter are also cached per
+ * ObjectMapper. They are held weakly: each of them references its ObjectMapper, which would otherwise never be collected.
+ * <p>
+ * The shared ObjectMapper must not be reconfigured: use {@link TestUtils#createObjectMapper()} to get a private one.
+ */
+public final class ObjectMappers {
+
+    private static final ObjectMapper DEFAULT = TestUtils.createObjectMapper();
+
+    private static final Map<ObjectMapper, Cache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ObjectMappers() {
+    }
+
+    /**
+     * @return The shared ObjectMapper used when no objectMapper is configured in the PackageSettings.
+     */
+    public static ObjectMapper defaultObjectMapper() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return The objectMapper configured in the PackageSettings of the caller, or the shared default one.
+     */
+    public static ObjectMapper current() {
+        return PackageLevelSettings.getValueFor(FluffyTestPackageSettings.OBJECT_MAPPER, () -> DEFAULT);
+    }
+
+    /**
+     * @return A cached ObjectReader of the given ObjectMapper bound to the given class.
+     */
+    public static com.fasterxml.jackson.databind.ObjectReader readerFor(ObjectMapper mapper, Class<?> clazz) {
+        return readerFor(mapper, mapper.constructType(clazz));
+    }
+
+    /**
+     * @return A cached ObjectReader of the given ObjectMapper bound to the given type.
+     */
+    public static com.fasterxml.jackson.databind.ObjectReader readerFor(ObjectMapper mapper, TypeReference<?> typeReference) {
+        return readerFor(mapper, mapper.constructType(typeReference));
+    }
+
+    /**
+     * @return A cached ObjectReader of the given ObjectMapper bound to the given type.
+     */
+    public static com.fasterxml.jackson.databind.ObjectReader readerFor(ObjectMapper mapper, JavaType type) {
+        return cached(cacheOf(mapper).readers, type, mapper::readerFor);
+    }
+
+    /**
+     * @return A cached ObjectWriter of the given ObjectMapper bound to the given class.
+     */
+    public static ObjectWriter writerFor(ObjectMapper mapper, Class<?> clazz) {
+        return cached(cacheOf(mapper).writers, clazz, mapper::writerFor);
+    }
+
+    private static Cache cacheOf(ObjectMapper mapper) {
+        return CACHES.computeIfAbsent(mapper, __ -> new Cache());
+    }
+
+    private static <K, V> V cached(Map<K, WeakReference<V>> cache, K key, Function<K, V> factory) {
+        WeakReference<V> reference = cache.get(key);
+        V value = reference == null ? null : reference.get();
+        if (value == null) {
+            // a concurrent caller may build another one, both are equivalent
+            value = factory.apply(key);
+            cache.put(key, new WeakReference<>(value));
+        }
+        return value;
+    }
+
+    private static final class Cache {
+        private final Map<JavaType, WeakReference<com.fasterxml.jackson.databind.ObjectReader>> readers = new ConcurrentHashMap<>();
+        private final Map<Class<?>, WeakReference<ObjectWriter>> writers = new ConcurrentHashMap<>();
+    }
+}
@@ -1,11 +1,13 @@
 package com.fluminis.fluffytest;
 
-import org.packagesettings.PackageLevelSettings;
-
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -13,10 +15,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class ObjectReader implements Reader {
 
-    private final Object object;
+    private Object object;
     private String content;
-    private JsonNode root;
+    private JsonTree tree;
     private ObjectMapper objectMapper;
+    private Representation representation = Representation.ORIGINAL;
 
     ObjectReader(Object object) {
         this.object = object;
@@ -28,19 +31,58 @@ public class ObjectReader implements Reader {
     }
 
     public ObjectReader mutate(Function<String, String> mutator) {
-        this.content = mutator.apply(asString());
+        String current = asString();
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.MUTATE, object.getClass().getName());
+        this.content = PlaceholderReplacer.apply(mutator, current, getObjectMapper());
+        span.end(FixtureEvents.describe(mutator), 0);
+        this.tree = null;
+        this.representation = Representation.STRING;
         return this;
     }
 
+    /**
+     * The mutators of {@link Mutators} and {@link MutationPlan}s are applied on the records of the object when they can,
+     * see {@link RecordMutations}, otherwise on its JsonNode tree.
+     */
     public ObjectReader mutate(BiConsumer<JsonNode, ObjectMapper> mutator) {
-        mutator.accept(asJsonNode(), getObjectMapper());
+        // a single span, whether the mutator is applied on the records or on the tree
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.MUTATE, object.getClass().getName());
+        if (isObject()) {
+            List<MutationPlan.Operation> operations = PathMutator.operationsOf(mutator);
+            Object mutated = operations == null ? null : RecordMutations.apply(object, operations, mutator instanceof MutationPlan, getObjectMapper());
+            if (mutated != null) {
+                span.end(FixtureEvents.describe(mutator), 0);
+                this.object = mutated;
+                this.content = null;
+                this.tree = null;
+                this.representation = Representation.OBJECT;
+                return this;
+            }
+        }
+        getTree().apply(mutator, getObjectMapper());
+        span.end(FixtureEvents.describe(mutator), 0);
+        this.content = null;
+        this.representation = Representation.TREE;
         return this;
     }
 
+    public ObjectReader fork() {
+        ObjectReader fork = new ObjectReader(object);
+        fork.content = content;
+        fork.tree = tree == null ? null : tree.fork();
+        fork.objectMapper = objectMapper;
+        fork.representation = representation;
+        return fork;
+    }
+
     public String asString() {
         if (content == null) {
             try {
-                content = getObjectMapper().writeValueAsString(object);
+                if (representation == Representation.TREE) {
+                    content = ObjectMappers.writerFor(getObjectMapper(), JsonNode.class).writeValueAsString(tree.readOnly());
+                } else {
+                    content = ObjectMappers.writerFor(getObjectMapper(), object.getClass()).writeValueAsString(object);
+                }
             } catch (IOException e) {
                 throw new RuntimeException(String.format("Could serialize object: %s", object), e);
             }
@@ -49,31 +91,123 @@ public class ObjectReader implements Reader {
     }
 
     public <T> T asObject(Class<T> clazz) {
-        return getObjectMapper().convertValue(asJsonNode(), clazz);
+        return readAsObject(ObjectMappers.readerFor(getObjectMapper(), clazz));
     }
 
     public <T> T asObject(TypeReference<T> typeReference) {
-        return getObjectMapper().convertValue(asJsonNode(), typeReference);
+        return readAsObject(ObjectMappers.readerFor(getObjectMapper(), typeReference));
+    }
+
+    public <T> T asObject(String path, Class<T> clazz) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), clazz));
+    }
+
+    public <T> T asObject(String path, TypeReference<T> typeReference) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), typeReference));
+    }
+
+    public <T> Stream<T> stream(Class<T> clazz) {
+        return JsonStreams.stream(elements(null, clazz));
+    }
+
+    public <T> Stream<T> stream(String path, Class<T> clazz) {
+        return JsonStreams.stream(elements(JsonPath.compile(path), clazz));
+    }
+
+    public <T> Iterator<T> iterator(Class<T> clazz) {
+        return elements(null, clazz);
     }
 
     public <T extends JsonNode> T asJsonNode() {
-        if (root == null) {
+        return (T) getTree().mutable();
+    }
+
+    public <T extends JsonNode> T at(String path) {
+        return readAsObject(JsonPath.compile(path), ObjectMappers.readerFor(getObjectMapper(), JsonNode.class));
+    }
+
+    private JsonTree getTree() {
+        if (tree == null) {
+            FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.PARSE, object.getClass().getName());
             if (content == null) {
-                root = getObjectMapper().valueToTree(object);
+                tree = new JsonTree(getObjectMapper().valueToTree(object), false);
             } else {
                 try {
-                    root = getObjectMapper().readTree(asString());
+                    tree = new JsonTree(getObjectMapper().readTree(content), false);
                 } catch (JsonProcessingException e) {
                     throw new RuntimeException(e);
                 }
             }
+            span.end(null, content == null ? 0 : content.length());
+        }
+        return tree;
+    }
+
+    JsonParser createParser() throws IOException {
+        if (tree == null && content != null) {
+            return getObjectMapper().createParser(content);
+        }
+        return getTree().readOnly().traverse(getObjectMapper());
+    }
+
+    private <T> JsonStreams.ElementIterator<T> elements(JsonPath arrayPath, Class<T> clazz) {
+        try {
+            return JsonStreams.elements(createParser(), arrayPath, ObjectMappers.readerFor(getObjectMapper(), clazz), object);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", object), e);
+        }
+    }
+
+    /**
+     * Convert the object in a single hop when nothing was mutated, or only its records, otherwise bind the mutated
+     * content. Rebuilt records of the expected type are returned as is.
+     */
+    private <T> T readAsObject(com.fasterxml.jackson.databind.ObjectReader reader) {
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.BIND, object.getClass().getName());
+        if (representation == Representation.OBJECT && reader.getValueType().getRawClass() == object.getClass()) {
+            span.end(reader.getValueType().toString(), 0);
+            @SuppressWarnings("unchecked")
+            T same = (T) object;
+            return same;
         }
-        return (T) root;
+        if (isObject() && tree == null) {
+            T converted = getObjectMapper().convertValue(object, reader.getValueType());
+            span.end(reader.getValueType().toString(), 0);
+            return converted;
+        }
+        return readAsObject(null, reader, span);
+    }
+
+    /**
+     * Bind the value at the given path, the values outside the path are skipped token by token.
+     */
+    private <T> T readAsObject(JsonPath path, com.fasterxml.jackson.databind.ObjectReader reader) {
+        return readAsObject(path, reader, FixtureEvents.start(FixtureEvents.Kind.BIND, object.getClass().getName()));
+    }
+
+    private <T> T readAsObject(JsonPath path, com.fasterxml.jackson.databind.ObjectReader reader, FixtureEvents.Span span) {
+        try (JsonParser parser = createParser()) {
+            if (path != null) {
+                JsonStreams.seek(parser, path);
+            }
+            T bound = reader.readValue(parser);
+            span.end(path == null ? reader.getValueType().toString() : reader.getValueType() + " at " + path, 0);
+            return bound;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return Whether the object is the current content, possibly with its records mutated.
+     */
+    private boolean isObject() {
+        return representation == Representation.ORIGINAL || representation == Representation.OBJECT;
     }
 
     private ObjectMapper getObjectMapper() {
         if (objectMapper == null) {
-            this.objectMapper = PackageLevelSettings.getValueFor(FluffyTestPackageSettings.OBJECT_MAPPER, TestUtils::createObjectMapper);
+            this.objectMapper = ObjectMappers.current();
         }
         return objectMapper;
     }
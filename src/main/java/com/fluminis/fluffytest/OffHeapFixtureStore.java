@@ -0,0 +1,162 @@
+package com.fluminis.fluffytest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Process-wide store of the bytes of the fixtures read by {@link TestUtils#read(String)}, kept outside of the heap.
+ * <p>
+ * The store is opt-in, declare it in your PackageSettings:
+ * <pre>{@code
+ * public class PackageSettings {
+ *     public static OffHeapFixtureStore offHeapStore = OffHeapFixtureStore.shared();
+ * }
+ * }</pre>
+ * The content of each file is read once into a direct ByteBuffer, which the garbage collector never copies nor scans.
+ * Readers parse it, or decode it to a String, only when asked for. Entries are keyed by the resolved path of the file,
+ * its last modified time and its size, so an edited file is read again.
+ * <p>
+ * The store is bounded by a number of bytes, the least recently used entries are evicted first. Evicting an entry only
+ * drops the reference of the store: the readers may still use its buffer, so its memory is freed by the garbage
+ * collector once they are collected too, which can take until the next old generation collection. {@link #stats()}
+ * only counts the entries kept by the store.
+ */
+public final class OffHeapFixtureStore {
+
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final OffHeapFixtureStore SHARED = new OffHeapFixtureStore(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long storedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes The number of bytes the store can keep outside of the heap.
+     */
+    public OffHeapFixtureStore(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes should be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return The store shared by the whole JVM, with a budget of {@link #DEFAULT_MAX_BYTES}.
+     */
+    public static OffHeapFixtureStore shared() {
+        return SHARED;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), storedBytes);
+    }
+
+    /**
+     * Evict the bytes of the given file, if they are stored. They are freed once no reader uses them anymore.
+     */
+    public synchronized void evict(Path path) {
+        Entry entry = entries.remove(path.toAbsolutePath().normalize());
+        if (entry != null) {
+            storedBytes -= entry.size;
+        }
+    }
+
+    /**
+     * Evict every entry, see {@link #evict(Path)}.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        storedBytes = 0;
+    }
+
+    /**
+     * @return The content of the file, read again only if it was modified since it was stored. The buffer is private
+     * to the caller.
+     */
+    ByteBuffer get(Path path) {
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", path), e);
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.lastModified == lastModified && entry.size == size) {
+                hits++;
+                return entry.buffer.duplicate();
+            }
+            misses++;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("%s is too large to be stored: %d bytes", path, size));
+        }
+        Entry entry;
+        FixtureEvents.Span span = FixtureEvents.start(FixtureEvents.Kind.READ, key);
+        try {
+            entry = new Entry(lastModified, size, read(key, (int) size));
+            span.end(null, size);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not read %s", path), e);
+        }
+        synchronized (this) {
+            // a file larger than the whole budget is only given to the caller
+            if (size <= maxBytes) {
+                Entry previous = entries.put(key, entry);
+                if (previous != null) {
+                    storedBytes -= previous.size;
+                }
+                storedBytes += size;
+                evictEldest();
+            }
+        }
+        return entry.buffer.duplicate();
+    }
+
+    private static ByteBuffer read(Path path, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        try (FileChannel channel = FileChannel.open(path)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until the buffer is full
+            }
+        }
+        return buffer.flip().asReadOnlyBuffer();
+    }
+
+    private void evictEldest() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (storedBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            storedBytes -= eldest.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * @param storedBytes The number of bytes of the entries kept by the store. The buffers of evicted entries which are
+     *                    not collected yet are not counted.
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long storedBytes) {
+    }
+
+    private record Entry(long lastModified, long size, ByteBuffer buffer) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.fluminis.fluffytest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A mutator targeting a path of the JSON structure, which knows how to apply itself on a shared tree by copying only
+ * the nodes along that path, and which describes itself as {@link MutationPlan.Operation}s when it can, so that it can be
+ * streamed by a {@link StreamingRewriter}.
+ */
+final class PathMutator implements BiConsumer<JsonNode, ObjectMapper> {
+
+    private final String description;
+    private final List<MutationPlan.Operation> operations;
+    private final BiConsumer<JsonNode, ObjectMapper> inPlace;
+    private final BiFunction<JsonNode, ObjectMapper, JsonNode> shared;
+
+    /**
+     * @param description How the mutator was built, e.g. <code>setNull(foo.bar)</code>, shown in reports.
+     * @param operations  The operations applied by the mutator in their order, or null if they are not all known.
+     */
+    PathMutator(String description, List<MutationPlan.Operation> operations, BiConsumer<JsonNode, ObjectMapper> inPlace,
+                BiFunction<JsonNode, ObjectMapper, JsonNode> shared) {
+        this.description = description;
+        this.operations = operations;
+        this.inPlace = inPlace;
+        this.shared = shared;
+    }
+
+    @Override
+    public void accept(JsonNode root, ObjectMapper objectMapper) {
+        inPlace.accept(root, objectMapper);
+    }
+
+    /**
+     * @return A new root with the mutation applied, root itself is left unchanged.
+     */
+    JsonNode applyShared(JsonNode root, ObjectMapper objectMapper) {
+        return shared.apply(root, objectMapper);
+    }
+
+    /**
+     * @return The operations applied by the mutator in their order, or null if it is not made of known operations.
+     */
+    static List<MutationPlan.Operation> operationsOf(BiConsumer<JsonNode, ObjectMapper> mutator) {
+        if (mutator instanceof PathMutator pathMutator) {
+            return pathMutator.operations;
+        }
+        if (mutator instanceof MutationPlan plan) {
+            return plan.operations();
+        }
+        return null;
+    }
+
+    /**
+     * @return The operations of the mutators, applied on the node at the given path, or null if one of them is not made
+     * of known operations.
+     */
+    static List<MutationPlan.Operation> operationsUnder(JsonPath path, List<BiConsumer<JsonNode, ObjectMapper>> mutators) {
+        List<MutationPlan.Operation> operations = new ArrayList<>();
+        for (BiConsumer<JsonNode, ObjectMapper> mutator : mutators) {
+            List<MutationPlan.Operation> nested = operationsOf(mutator);
+            if (nested == null) {
+                return null;
+            }
+            for (MutationPlan.Operation operation : nested) {
+                operations.add(operation.under(path));
+            }
+        }
+        return operations;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
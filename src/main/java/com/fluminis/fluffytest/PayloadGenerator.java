@@ -0,0 +1,188 @@
+package com.fluminis.fluffytest;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Write a JSON array of many variants of a template, e.g. to build the payloads of a load test.
+ * <pre>{@code
+ * static final JsonPath ID = JsonPath.compile("order.id");
+ *
+ * PayloadGenerator.of(read("in/order.json"))
+ *     .mutate(i -> Mutators.setValue(ID, "ORDER-" + i))
+ *     .mutate(i -> Mutators.setValue("order.lines.0.quantity", i % 10))
+ *     .parallelism(4)
+ *     .writeTo(Path.of("target/orders.json"), 1_000_000);
+ * }</pre>
+ * Each variant is derived from the parsed template copy-on-write and written as soon as it is built, so memory does not
+ * depend on the number of variants. Mutators which are not created by {@link Mutators} or {@link MutationPlan} copy the
+ * whole template for each variant.
+ * <p>
+ * With a parallelism greater than 1, chunks of variants are built concurrently on the common ForkJoinPool, and written
+ * in order.
+ */
+public final class PayloadGenerator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final Reader template;
+    private final List<IntFunction<? extends BiConsumer<JsonNode, ObjectMapper>>> mutators = new ArrayList<>();
+    private ObjectMapper objectMapper;
+    private int parallelism = 1;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private PayloadGenerator(Reader template) {
+        this.template = template;
+    }
+
+    /**
+     * @param template The reader of the template, in its current state. It is not modified by the generator.
+     */
+    public static PayloadGenerator of(Reader template) {
+        return new PayloadGenerator(template);
+    }
+
+    /**
+     * Add a mutator applied to each variant, built from the index of the variant.
+     */
+    public PayloadGenerator mutate(IntFunction<? extends BiConsumer<JsonNode, ObjectMapper>> mutator) {
+        mutators.add(mutator);
+        return this;
+    }
+
+    /**
+     * Specify which ObjectMapper to use to build and write the variants.
+     */
+    public PayloadGenerator withObjectMapper(ObjectMapper mapper) {
+        this.objectMapper = mapper;
+        return this;
+    }
+
+    /**
+     * @param parallelism The number of chunks of variants built at the same time, 1 by default.
+     */
+    public PayloadGenerator parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism should be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param chunkSize The number of variants built by a task when the parallelism is greater than 1.
+     */
+    public PayloadGenerator chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize should be at least 1: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public void writeTo(Path path, int count) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            writeTo(out, count);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not write %s", path), e);
+        }
+    }
+
+    /**
+     * Write an array of the given number of variants, the stream is left open.
+     */
+    public void writeTo(OutputStream out, int count) {
+        ObjectMapper mapper = objectMapper == null ? ObjectMappers.current() : objectMapper;
+        // private to the generator, only read by the variants
+        JsonNode root = template.fork().asJsonNode();
+        try {
+            if (parallelism == 1) {
+                try (JsonGenerator generator = mapper.createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.writeStartArray();
+                    for (int i = 0; i < count; i++) {
+                        mapper.writeTree(generator, variant(root, i, mapper));
+                    }
+                    generator.writeEndArray();
+                }
+            } else {
+                writeChunks(out, count, root, mapper);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write payload", e);
+        }
+    }
+
+    private void writeChunks(OutputStream out, int count, JsonNode root, ObjectMapper mapper) throws IOException {
+        // a bounded number of chunks in memory, whatever the number of variants
+        Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+        int next = 0;
+        boolean first = true;
+        out.write('[');
+        while (next < count || !pending.isEmpty()) {
+            while (next < count && pending.size() < 2 * parallelism) {
+                int from = next;
+                int to = (int) Math.min((long) next + chunkSize, count);
+                pending.add(CompletableFuture.supplyAsync(() -> chunk(root, from, to, mapper), ForkJoinPool.commonPool()));
+                next = to;
+            }
+            byte[] chunk;
+            try {
+                chunk = pending.poll().join();
+            } catch (CompletionException e) {
+                pending.forEach(future -> future.cancel(false));
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            out.write(chunk);
+            first = false;
+        }
+        out.write(']');
+    }
+
+    /**
+     * @return The variants between from (inclusive) and to (exclusive), separated by commas.
+     */
+    private byte[] chunk(JsonNode root, int from, int to, ObjectMapper mapper) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.createGenerator(out)) {
+            generator.setRootValueSeparator(new SerializedString(","));
+            for (int i = from; i < to; i++) {
+                mapper.writeTree(generator, variant(root, i, mapper));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private JsonNode variant(JsonNode root, int index, ObjectMapper mapper) {
+        JsonTree tree = new JsonTree(root, true);
+        for (IntFunction<? extends BiConsumer<JsonNode, ObjectMapper>> mutator : mutators) {
+            tree.apply(mutator.apply(index), mapper);
+        }
+        return tree.readOnly();
+    }
+}
@@ -0,0 +1,167 @@
+package com.fluminis.fluffytest;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Replace many literal placeholders in a single pass over the content.
+ * <p>
+ * Placeholders are stored in a trie built once. The content is scanned from left to right: at each position whose
+ * character can start a placeholder, the longest matching placeholder is replaced, then the scan resumes after it.
+ */
+final class PlaceholderReplacer implements Function<String, String> {
+
+    private final String description;
+    private final Node root;
+    private final BitSet firstChars = new BitSet();
+    private final Object[] values;
+    private final boolean growing;
+
+    PlaceholderReplacer(Map<String, ?> values) {
+        this.description = "replacePlaceholders(" + values.size() + " placeholders)";
+        this.values = new Object[values.size()];
+        TrieBuilder builder = new TrieBuilder();
+        int minPlaceholder = Integer.MAX_VALUE;
+        int index = 0;
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            String placeholder = entry.getKey();
+            if (placeholder == null || placeholder.isEmpty()) {
+                throw new IllegalArgumentException("Placeholders should not be empty");
+            }
+            firstChars.set(placeholder.charAt(0));
+            builder.add(placeholder, index);
+            this.values[index++] = entry.getValue();
+            minPlaceholder = Math.min(minPlaceholder, placeholder.length());
+        }
+        this.root = builder.build();
+        // only a rough guess, String values are the only ones known before rendering
+        this.growing = values.values().stream().anyMatch(value -> !(value instanceof String))
+                       || values.values().stream().mapToInt(value -> ((String) value).length()).max().orElse(0) > minPlaceholder;
+    }
+
+    /**
+     * @return The content mutated by the given mutator, placeholders being rendered by the ObjectMapper of the Reader
+     * which applies it.
+     */
+    static String apply(Function<String, String> mutator, String content, ObjectMapper objectMapper) {
+        return mutator instanceof PlaceholderReplacer replacer ? replacer.apply(content, objectMapper) : mutator.apply(content);
+    }
+
+    @Override
+    public String apply(String content) {
+        return apply(content, ObjectMappers.current());
+    }
+
+    String apply(String content, ObjectMapper objectMapper) {
+        String[] rendered = null;
+        StringBuilder result = null;
+        int copied = 0;
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            if (!firstChars.get(content.charAt(i))) {
+                i++;
+                continue;
+            }
+            int matchEnd = -1;
+            int matchValue = -1;
+            Node node = root;
+            for (int j = i; j < length && (node = node.next(content.charAt(j))) != null; j++) {
+                if (node.value >= 0) {
+                    matchEnd = j + 1;
+                    matchValue = node.value;
+                }
+            }
+            if (matchValue < 0) {
+                i++;
+                continue;
+            }
+            if (result == null) {
+                result = new StringBuilder(growing ? length + (length >> 3) : length);
+                rendered = new String[values.length];
+            }
+            if (rendered[matchValue] == null) {
+                rendered[matchValue] = render(values[matchValue], objectMapper);
+            }
+            result.append(content, copied, i).append(rendered[matchValue]);
+            copied = matchEnd;
+            i = matchEnd;
+        }
+        if (result == null) {
+            return content;
+        }
+        return result.append(content, copied, length).toString();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * @return The value as it would appear in a JSON string, e.g. <code>2025-06-04</code> for a LocalDate, with its
+     * quotes, backslashes and control characters escaped.
+     */
+    private static String render(Object value, ObjectMapper objectMapper) {
+        if (value instanceof String string) {
+            return escape(string);
+        }
+        if (value == null) {
+            return "null";
+        }
+        JsonNode node = objectMapper.valueToTree(value);
+        return node.isTextual() ? escape(node.textValue()) : node.toString();
+    }
+
+    private static String escape(String text) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(text));
+    }
+
+    private static final class Node {
+        private final char[] chars;
+        private final Node[] children;
+        private final int value;
+
+        private Node(char[] chars, Node[] children, int value) {
+            this.chars = chars;
+            this.children = children;
+            this.value = value;
+        }
+
+        private Node next(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private static final class TrieBuilder {
+        private final TreeMap<Character, TrieBuilder> children = new TreeMap<>();
+        private int value = -1;
+
+        private void add(String placeholder, int value) {
+            TrieBuilder node = this;
+            for (int i = 0; i < placeholder.length(); i++) {
+                node = node.children.computeIfAbsent(placeholder.charAt(i), __ -> new TrieBuilder());
+            }
+            node.value = value;
+        }
+
+        private Node build() {
+            char[] chars = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, TrieBuilder> child : children.entrySet()) {
+                chars[i] = child.getKey();
+                nodes[i++] = child.getValue().build();
+            }
+            return new Node(chars, nodes, value);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.fluminis.fluffytest;
 
+import java.util.Iterator;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -59,8 +61,10 @@ public interface Reader {
      * Key features:<br>
      * - Can chain multiple transformations<br>
      * - Works with content already loaded from previous operations<br>
-     * - Calls to {@link #mutate(Function)} could have been made before the first call to this method but not after.
-     * - Does not modify the original file
+     * - Can be interleaved with calls to {@link #mutate(Function)}<br>
+     * - Does not modify the original file<br>
+     * - When the tree is shared with a {@link #fork()}, the mutators of {@link Mutators} only copy the nodes along their
+     * path, other mutators copy the whole tree first
      * <p>
      * Example usage:
      * <pre>{@code
@@ -91,9 +95,23 @@ public interface Reader {
         return this;
     }
 
+    /**
+     * Returns a new Reader starting from the current state of this one.
+     * <p>
+     * Both readers share their content: the JsonNode tree is only copied along the paths mutated afterward, so deriving
+     * many variants of a large file is cheap.
+     * <pre>{@code
+     * Reader baseline = read("in/big.json").mutate(setValue("buzz.foo", "Hello"));
+     * Big first = baseline.fork().mutate(setValue("buzz.bar", "Guys")).asObject(Big.class);
+     * Big second = baseline.fork().mutate(setValue("buzz.bar", "Women")).asObject(Big.class);
+     * }</pre>
+     */
+    Reader fork();
+
     /**
      * Returns the current String representation of the file.
      * If the file has not been read yet. It will be loaded in memory at this time.
+     * If the JsonNode tree has been mutated, it is serialized back to a String.
      */
     String asString();
 
@@ -107,8 +125,100 @@ public interface Reader {
      */
     <T> T asObject(TypeReference<T> typeReference);
 
+    /**
+     * Unmarshall the value at the given path, using the same dot notation as {@link Mutators}.
+     * <p>
+     * When the file has not been loaded in memory yet, the values outside the path are skipped while parsing, so that
+     * only the requested value is built:
+     * <pre>{@code
+     * Small buzz = read("in/big.json").asObject("buzz", Small.class);
+     * }</pre>
+     *
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    <T> T asObject(String path, Class<T> clazz);
+
+    /**
+     * Unmarshall the value at the given path, see {@link #asObject(String, Class)}.
+     */
+    <T> T asObject(String path, TypeReference<T> typeReference);
+
+    /**
+     * Unmarshall the elements of the top-level array one at a time.
+     * <p>
+     * When the file has not been loaded in memory yet, it is parsed incrementally so that memory stays flat whatever
+     * the size of the file. The stream should be closed to release the file:
+     * <pre>{@code
+     * try (Stream<Foo> foos = read("in/list.json").stream(Foo.class)) {
+     *     foos.forEach(...);
+     * }
+     * }</pre>
+     */
+    <T> Stream<T> stream(Class<T> clazz);
+
+    /**
+     * Unmarshall the elements of the array at the given path one at a time, see {@link #stream(Class)}.
+     * <pre>{@code
+     * try (Stream<Line> lines = read("in/order.json").stream("order.lines", Line.class)) {
+     *     lines.forEach(...);
+     * }
+     * }</pre>
+     *
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    <T> Stream<T> stream(String path, Class<T> clazz);
+
+    /**
+     * Unmarshall the elements of the top-level array one at a time, see {@link #stream(Class)}.
+     * The file is released once the last element has been read.
+     */
+    <T> Iterator<T> iterator(Class<T> clazz);
+
     /**
      * Returns the current JsonNode tree.
+     * The returned tree belongs to this reader and can be modified.
      */
     <T extends JsonNode> T asJsonNode();
+
+    /**
+     * Returns the JsonNode at the given path, using the same dot notation as {@link Mutators}, see
+     * {@link #asObject(String, Class)}.
+     * The returned node belongs to the caller and can be modified.
+     *
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    <T extends JsonNode> T at(String path);
+
+    /**
+     * Read the array of numbers at the given path, using the same dot notation as {@link Mutators}, into a double[].
+     * <p>
+     * The numbers are parsed one by one straight into the array: no JsonNode and no Double is created, so a series of
+     * millions of points costs its 8 bytes per point.
+     * <pre>{@code
+     * double[] samples = read("in/sensor.json").asDoubleArray("series.samples");
+     * }</pre>
+     *
+     * @throws IllegalArgumentException if the path does not exist, or an element is not a number
+     */
+    default double[] asDoubleArray(String path) {
+        return JsonStreams.doubles(this, path);
+    }
+
+    /**
+     * Read the array of integers at the given path into a long[], see {@link #asDoubleArray(String)}.
+     *
+     * @throws IllegalArgumentException if the path does not exist, or an element is not an integer
+     */
+    default long[] asLongArray(String path) {
+        return JsonStreams.longs(this, path);
+    }
+
+    /**
+     * Read the array of integers at the given path into an int[], see {@link #asDoubleArray(String)}.
+     *
+     * @throws IllegalArgumentException if the path does not exist, or an element is not an integer
+     */
+    default int[] asIntArray(String path) {
+        return JsonStreams.ints(this, path);
+    }
 }
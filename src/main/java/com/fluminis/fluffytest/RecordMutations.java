@@ -0,0 +1,338 @@
+package com.fluminis.fluffytest;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+
+/**
+ * Apply the operations of {@link Mutators} and {@link MutationPlan}s directly on a graph of records, Lists and Maps,
+ * without going through JSON. Only the records and collections along the mutated paths are rebuilt, everything else is
+ * shared with the original object, as is: values outside the mutated paths do not go through their serializers.
+ * <p>
+ * A record is rebuilt only if the ObjectMapper handles it with Jackson's standard bean serializer and deserializer,
+ * without annotations, naming strategy nor mix-ins, and if it is declared with its own type. The values set or copied
+ * are always converted by the ObjectMapper. Otherwise (custom (de)serializers registered by a module, untyped values,
+ * missing paths...), the operations are not applied and the caller falls back to the JsonNode tree.
+ */
+final class RecordMutations {
+
+    private static final Object UNSUPPORTED = new Object();
+
+    private static final ClassValue<Model> MODELS = new ClassValue<>() {
+        @Override
+        protected Model computeValue(Class<?> type) {
+            return Model.of(type);
+        }
+    };
+
+    /**
+     * Whether each ObjectMapper handles a record type with the standard bean serializer and deserializer.
+     */
+    private static final Map<ObjectMapper, Map<JavaType, Boolean>> STANDARD_BEANS = new WeakHashMap<>();
+
+    private RecordMutations() {
+    }
+
+    /**
+     * @param snapshot Whether the sources of the copies are read before any operation, as a {@link MutationPlan} does.
+     * @return The mutated object, or null if the operations can't be applied without JSON.
+     */
+    static Object apply(Object root, List<MutationPlan.Operation> operations, boolean snapshot, ObjectMapper objectMapper) {
+        if (MODELS.get(root.getClass()) == null || objectMapper.getPropertyNamingStrategy() != null || objectMapper.mixInCount() > 0) {
+            return null;
+        }
+        JavaType type = objectMapper.constructType(root.getClass());
+        Object[] sources = new Object[operations.size()];
+        for (int i = 0; snapshot && i < operations.size(); i++) {
+            if (operations.get(i).kind() == MutationPlan.Kind.COPY) {
+                sources[i] = get(root, type, operations.get(i).source(), objectMapper);
+            }
+        }
+        Object current = root;
+        for (int i = 0; i < operations.size(); i++) {
+            MutationPlan.Operation operation = operations.get(i);
+            Object value = switch (operation.kind()) {
+                case SET_VALUE -> operation.value();
+                case SET_NULL -> null;
+                case COPY -> snapshot ? sources[i] : get(current, type, operation.source(), objectMapper);
+            };
+            if (value == UNSUPPORTED) {
+                return null;
+            }
+            current = set(current, type, operation.target(), 0, value, objectMapper);
+            if (current == UNSUPPORTED) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static Object get(Object node, JavaType type, JsonPath path, ObjectMapper objectMapper) {
+        for (int segment = 0; segment < path.size(); segment++) {
+            JavaType childType = childType(node, type, path, segment, objectMapper);
+            if (childType == null) {
+                return UNSUPPORTED;
+            }
+            node = child(node, path, segment);
+            type = childType;
+            if (node == UNSUPPORTED) {
+                return UNSUPPORTED;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * @return A copy of the node with the value set at the given path.
+     */
+    private static Object set(Object node, JavaType type, JsonPath path, int segment, Object value, ObjectMapper objectMapper) {
+        JavaType childType = childType(node, type, path, segment, objectMapper);
+        if (childType == null) {
+            return UNSUPPORTED;
+        }
+        Object newChild;
+        if (segment == path.size() - 1) {
+            newChild = convert(value, childType, objectMapper);
+        } else {
+            Object child = child(node, path, segment);
+            newChild = child == UNSUPPORTED ? UNSUPPORTED : set(child, childType, path, segment + 1, value, objectMapper);
+        }
+        return newChild == UNSUPPORTED ? UNSUPPORTED : with(node, path, segment, newChild);
+    }
+
+    /**
+     * @return The declared type of the child of the node, or null if the node can't be mutated at this segment.
+     */
+    private static JavaType childType(Object node, JavaType type, JsonPath path, int segment, ObjectMapper objectMapper) {
+        if (node == null) {
+            return null;
+        }
+        Model model = MODELS.get(node.getClass());
+        if (model != null) {
+            Integer index = model.indexes.get(path.name(segment));
+            if (index == null) {
+                return null;
+            }
+            // a record declared as Object, an interface or a super type is bound to another type by Jackson
+            if (type.getRawClass() != node.getClass() || !isStandardBean(type, objectMapper)) {
+                return null;
+            }
+            return objectMapper.getTypeFactory().resolveMemberType(model.components[index].getGenericType(), type.getBindings());
+        }
+        // rebuilt as an ArrayList and a LinkedHashMap, as Jackson binds them
+        if (node instanceof List<?> && type.isCollectionLikeType() && type.getRawClass().isAssignableFrom(ArrayList.class)
+            && path.isIndex(segment)) {
+            return type.getContentType();
+        }
+        if (node instanceof Map<?, ?> && type.isMapLikeType() && type.getRawClass().isAssignableFrom(LinkedHashMap.class)
+            && type.getKeyType().getRawClass() == String.class) {
+            return type.getContentType();
+        }
+        return null;
+    }
+
+    /**
+     * @return Whether the ObjectMapper serializes and deserializes the record type with the standard bean
+     * (de)serializers, from its components only.
+     */
+    private static boolean isStandardBean(JavaType type, ObjectMapper objectMapper) {
+        Map<JavaType, Boolean> types;
+        synchronized (STANDARD_BEANS) {
+            types = STANDARD_BEANS.computeIfAbsent(objectMapper, key -> new ConcurrentHashMap<>());
+        }
+        return types.computeIfAbsent(type, key -> {
+            try {
+                DefaultDeserializationContext context = ((DefaultDeserializationContext) objectMapper.getDeserializationContext())
+                    .createInstance(objectMapper.getDeserializationConfig(), null, null);
+                return objectMapper.getSerializerProviderInstance().findValueSerializer(key).getClass() == BeanSerializer.class
+                    && context.findRootValueDeserializer(key).getClass() == BeanDeserializer.class;
+            } catch (JsonMappingException e) {
+                // reported when the tree is bound
+                return false;
+            }
+        });
+    }
+
+    private static Object child(Object node, JsonPath path, int segment) {
+        Model model = MODELS.get(node.getClass());
+        if (model != null) {
+            return model.get(node, model.indexes.get(path.name(segment)));
+        }
+        if (node instanceof List<?> list) {
+            return path.index(segment) < list.size() ? list.get(path.index(segment)) : UNSUPPORTED;
+        }
+        Map<?, ?> map = (Map<?, ?>) node;
+        return map.containsKey(path.name(segment)) ? map.get(path.name(segment)) : UNSUPPORTED;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object with(Object node, JsonPath path, int segment, Object child) {
+        Model model = MODELS.get(node.getClass());
+        if (model != null) {
+            return model.with(node, model.indexes.get(path.name(segment)), child);
+        }
+        if (node instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list);
+            // same as an ArrayNode: an index beyond the end appends the value
+            if (path.index(segment) < copy.size()) {
+                copy.set(path.index(segment), child);
+            } else {
+                copy.add(child);
+            }
+            return copy;
+        }
+        Map<String, Object> copy = new LinkedHashMap<>((Map<String, Object>) node);
+        copy.put(path.name(segment), child);
+        return copy;
+    }
+
+    /**
+     * @return The value as Jackson would bind it to the given type, through its own serializer and deserializer.
+     */
+    private static Object convert(Object value, JavaType type, ObjectMapper objectMapper) {
+        if (type.getRawClass() == Object.class) {
+            // bound as Maps and Lists by Jackson
+            return UNSUPPORTED;
+        }
+        if (value == null) {
+            return type.isPrimitive() ? UNSUPPORTED : null;
+        }
+        try {
+            return objectMapper.convertValue(value, type);
+        } catch (IllegalArgumentException e) {
+            // reported by the JsonNode tree
+            return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * The accessors and the canonical constructor of a record, looked up once.
+     */
+    private static final class Model {
+        private final RecordComponent[] components;
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final MethodHandle[] accessors;
+        private final MethodHandle constructor;
+
+        private Model(RecordComponent[] components, MethodHandle[] accessors, MethodHandle constructor) {
+            this.components = components;
+            this.accessors = accessors;
+            this.constructor = constructor;
+            for (int i = 0; i < components.length; i++) {
+                indexes.put(components[i].getName(), i);
+            }
+        }
+
+        /**
+         * @return The model of a record serialized by Jackson from its components only, or null.
+         */
+        private static Model of(Class<?> type) {
+            if (!type.isRecord() || hasJacksonAnnotation(type)) {
+                return null;
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] types = new Class<?>[components.length];
+                MethodHandle[] accessors = new MethodHandle[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    types[i] = components[i].getType();
+                    accessors[i] = lookup.unreflect(accessible(components[i].getAccessor()))
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                }
+                Constructor<?> canonical = accessible(type.getDeclaredConstructor(types));
+                MethodHandle constructor = lookup.unreflectConstructor(canonical)
+                    .asType(MethodType.genericMethodType(components.length))
+                    .asSpreader(Object[].class, components.length);
+                return new Model(components, accessors, constructor);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // e.g. a record of a module which is not open
+                return null;
+            }
+        }
+
+        private Object get(Object record, int component) {
+            try {
+                return (Object) accessors[component].invokeExact(record);
+            } catch (Throwable e) {
+                return UNSUPPORTED;
+            }
+        }
+
+        private Object with(Object record, int component, Object value) {
+            Object[] values = new Object[accessors.length];
+            try {
+                for (int i = 0; i < accessors.length; i++) {
+                    values[i] = i == component ? value : (Object) accessors[i].invokeExact(record);
+                }
+                return (Object) constructor.invokeExact(values);
+            } catch (Throwable e) {
+                // e.g. rejected by a compact constructor, reported when the tree is bound
+                return UNSUPPORTED;
+            }
+        }
+
+        private static <T extends AccessibleObject> T accessible(T member) {
+            member.setAccessible(true);
+            return member;
+        }
+
+        /**
+         * @return Whether Jackson may not serialize the record from its components, under their own names.
+         */
+        private static boolean hasJacksonAnnotation(Class<?> type) {
+            if (isJackson(type.getAnnotations())) {
+                return true;
+            }
+            for (var field : type.getDeclaredFields()) {
+                if (isJackson(field.getAnnotations())) {
+                    return true;
+                }
+            }
+            for (var method : type.getDeclaredMethods()) {
+                if (isJackson(method.getAnnotations())) {
+                    return true;
+                }
+            }
+            for (var constructor : type.getDeclaredConstructors()) {
+                if (isJackson(constructor.getAnnotations())) {
+                    return true;
+                }
+                for (Parameter parameter : constructor.getParameters()) {
+                    if (isJackson(parameter.getAnnotations())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean isJackson(Annotation[] annotations) {
+            for (Annotation annotation : annotations) {
+                if (annotation.annotationType().getName().startsWith("com.fasterxml.jackson.")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
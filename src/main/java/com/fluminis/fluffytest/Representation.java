@@ -0,0 +1,23 @@
+package com.fluminis.fluffytest;
+
+/**
+ * Which representation of the content of a Reader is authoritative. The others, when loaded, are derived from it.
+ */
+enum Representation {
+    /**
+     * Nothing was mutated: the file, or the object, is read directly.
+     */
+    ORIGINAL,
+    /**
+     * The records of the object were rebuilt by the mutators, see {@link RecordMutations}.
+     */
+    OBJECT,
+    /**
+     * The String content was mutated.
+     */
+    STRING,
+    /**
+     * The JsonNode tree was mutated.
+     */
+    TREE
+}
@@ -0,0 +1,433 @@
+package com.fluminis.fluffytest;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+/**
+ * Apply mutators while the document flows from its parser to a generator, without ever building its tree, e.g. to
+ * prepare a fixture of several gigabytes.
+ * <pre>{@code
+ * StreamingRewriter.of(read("in/orders.json"))
+ *     .mutate(setValue("orders.0.status", "PAID"))
+ *     .mutate(setNull("orders.0.lines.0.price"))
+ *     .writeTo(Path.of("target/orders.json"));
+ * }</pre>
+ * Only the mutators created by {@link Mutators} and {@link MutationPlan}s can be streamed. They give the same result as
+ * {@link Reader#mutate(BiConsumer)}, except that:<ul>
+ * <li>a field which does not exist is added at the end of its object,
+ * <li>the source of a {@link Mutators#copy(String, String)} must come before its target in the document.
+ * </ul>
+ * Memory depends on the nesting depth of the document and on the size of the values set or copied, not on the size of
+ * the document.
+ */
+public final class StreamingRewriter {
+
+    private final Reader template;
+    private final List<MutationPlan.Operation> operations = new ArrayList<>();
+    private ObjectMapper objectMapper;
+
+    private StreamingRewriter(Reader template) {
+        this.template = template;
+    }
+
+    /**
+     * @param template The reader of the document, in its current state. It is not modified by the rewriter.
+     */
+    public static StreamingRewriter of(Reader template) {
+        return new StreamingRewriter(template);
+    }
+
+    /**
+     * Add a mutator, applied after the ones added before it.
+     *
+     * @throws IllegalArgumentException if the mutator can't be streamed
+     */
+    public StreamingRewriter mutate(BiConsumer<JsonNode, ObjectMapper> mutator) {
+        String rejection = rejection(mutator);
+        if (rejection != null) {
+            throw new IllegalArgumentException(rejection);
+        }
+        operations.addAll(PathMutator.operationsOf(mutator));
+        return this;
+    }
+
+    /**
+     * @return Why the mutator can't be streamed after the ones already added, or null if it can.
+     */
+    String rejection(BiConsumer<JsonNode, ObjectMapper> mutator) {
+        List<MutationPlan.Operation> added = PathMutator.operationsOf(mutator);
+        if (added == null) {
+            return String.format("%s can't be streamed, only the mutators of Mutators and MutationPlans can", FixtureEvents.describe(mutator));
+        }
+        for (int operation = 0; operation < added.size(); operation++) {
+            MutationPlan.Operation copy = added.get(operation);
+            // the sources are read in the original document, like a MutationPlan does
+            int before = mutator instanceof MutationPlan ? 0 : operation;
+            for (int i = 0; copy.kind() == MutationPlan.Kind.COPY && i < operations.size() + before; i++) {
+                MutationPlan.Operation previous = i < operations.size() ? operations.get(i) : added.get(i - operations.size());
+                if (overlap(copy.source(), previous.target())) {
+                    return String.format("%s can't be streamed: %s is modified by %s declared before it", copy, copy.source(), previous);
+                }
+            }
+        }
+        return null;
+    }
+
+    boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     * @return A rewriter of the same template with the same mutators, which can be completed independently.
+     */
+    StreamingRewriter fork() {
+        StreamingRewriter fork = new StreamingRewriter(template);
+        fork.operations.addAll(operations);
+        fork.objectMapper = objectMapper;
+        return fork;
+    }
+
+    /**
+     * Specify which ObjectMapper to use to read and write the document.
+     */
+    public StreamingRewriter withObjectMapper(ObjectMapper mapper) {
+        this.objectMapper = mapper;
+        return this;
+    }
+
+    /**
+     * Write the mutated document to a temporary file, moved to the given path once complete: the path is left
+     * untouched if a mutator fails.
+     *
+     * @throws IllegalArgumentException if a path does not exist
+     */
+    public void writeTo(Path path) {
+        Path temp = null;
+        try {
+            Path absolute = path.toAbsolutePath();
+            temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writeTo(out);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not write %s", path), e);
+        } finally {
+            deleteIfExists(temp);
+        }
+    }
+
+    private static void deleteIfExists(Path temp) {
+        try {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // only a leftover, the error of the rewrite matters
+        }
+    }
+
+    /**
+     * Write the mutated document, the stream is left open.
+     *
+     * @throws IllegalArgumentException if a path does not exist, the document is then only partially written
+     */
+    public void writeTo(OutputStream out) {
+        ObjectMapper mapper = objectMapper == null ? ObjectMappers.current() : objectMapper;
+        try (JsonParser parser = JsonStreams.createParser(template, mapper);
+             JsonGenerator generator = mapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            rewrite(parser, generator, mapper, null);
+            generator.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not rewrite %s", template), e);
+        }
+    }
+
+    /**
+     * Write the document read by the parser with the mutators applied.
+     *
+     * @param sources The values of the paths copied when they can be read directly, or null. The other ones are read
+     *                from the parser, and must come before their target.
+     */
+    void rewrite(JsonParser parser, JsonGenerator generator, ObjectMapper mapper, Function<JsonPath, JsonNode> sources) throws IOException {
+        Rewrite rewrite = new Rewrite(mapper, sources);
+        if (parser.hasCurrentToken() || parser.nextToken() != null) {
+            rewrite.write(parser, rewrite.root, generator, false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return operations.stream().map(MutationPlan.Operation::toString).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * @return Whether one of the paths is the other one or one of its parents.
+     */
+    private static boolean overlap(JsonPath path, JsonPath other) {
+        for (int segment = 0; segment < Math.min(path.size(), other.size()); segment++) {
+            if (!path.name(segment).equals(other.name(segment))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The state of one rewrite: the paths of the operations as a trie, and the value of each operation.
+     */
+    private final class Rewrite {
+        private final ObjectMapper mapper;
+        private final JsonNode[] values;
+        private final Node root = new Node(null, -1);
+
+        private Rewrite(ObjectMapper mapper, Function<JsonPath, JsonNode> sources) {
+            this.mapper = mapper;
+            this.values = new JsonNode[operations.size()];
+            for (int i = 0; i < operations.size(); i++) {
+                MutationPlan.Operation operation = operations.get(i);
+                if (isOverridden(i)) {
+                    continue;
+                }
+                switch (operation.kind()) {
+                    case SET_VALUE -> values[i] = mapper.valueToTree(operation.value());
+                    case SET_NULL -> values[i] = NullNode.getInstance();
+                    case COPY -> {
+                        if (sources == null) {
+                            add(operation.source(), false).sources.add(i);
+                        } else {
+                            values[i] = sources.apply(operation.source());
+                        }
+                    }
+                }
+                add(operation.target(), true).operation = i;
+            }
+        }
+
+        /**
+         * @return Whether a later operation replaces the target of this one or one of its parents.
+         */
+        private boolean isOverridden(int operation) {
+            JsonPath target = operations.get(operation).target();
+            for (int i = operation + 1; i < operations.size(); i++) {
+                JsonPath later = operations.get(i).target();
+                if (later.size() <= target.size() && overlap(later, target)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param target Whether the path is modified, otherwise it is copied.
+         * @return The node of the path.
+         */
+        private Node add(JsonPath path, boolean target) {
+            Node node = root;
+            for (int segment = 0; ; segment++) {
+                if (target) {
+                    node.mutating = true;
+                } else {
+                    node.capturing = true;
+                }
+                if (segment == path.size()) {
+                    return node;
+                }
+                int index = segment;
+                node = node.children.computeIfAbsent(path.name(segment), __ -> new Node(path, index));
+            }
+        }
+
+        /**
+         * Write the value starting at the current token of the parser, which is left on its last token.
+         *
+         * @param captured Whether the copied values below this one have already been read.
+         */
+        private void write(JsonParser parser, Node node, JsonGenerator generator, boolean captured) throws IOException {
+            if (node == null || (!node.mutating && (captured || !node.capturing))) {
+                generator.copyCurrentStructure(parser);
+                return;
+            }
+            boolean consumed = false;
+            if (!captured && node.capturing && (node.operation >= 0 || !node.sources.isEmpty())) {
+                // only the copied values, and the values they are part of, are ever read as trees
+                JsonNode original = mapper.readTree(parser);
+                capture(original, node);
+                captured = true;
+                consumed = true;
+                parser = traverse(original);
+            }
+            if (node.operation >= 0) {
+                if (!consumed) {
+                    parser.skipChildren();
+                }
+                writeContent(traverse(value(node)), node, generator, true);
+            } else {
+                writeContent(parser, node, generator, captured);
+            }
+        }
+
+        private void writeContent(JsonParser parser, Node node, JsonGenerator generator, boolean captured) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                writeObject(parser, node, generator, captured);
+            } else if (token == JsonToken.START_ARRAY) {
+                writeArray(parser, node, generator, captured);
+            } else {
+                for (Node child : node.children.values()) {
+                    if (child.mutating) {
+                        throw child.path.notFound(child.segment);
+                    }
+                }
+                generator.copyCurrentEvent(parser);
+            }
+        }
+
+        private void writeObject(JsonParser parser, Node node, JsonGenerator generator, boolean captured) throws IOException {
+            Set<Node> written = new HashSet<>();
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                Node child = node.children.get(name);
+                generator.writeFieldName(name);
+                parser.nextToken();
+                write(parser, child, generator, captured);
+                if (child != null) {
+                    written.add(child);
+                }
+            }
+            for (Map.Entry<String, Node> child : node.children.entrySet()) {
+                if (child.getValue().mutating && !written.contains(child.getValue())) {
+                    generator.writeFieldName(child.getKey());
+                    writeMissing(child.getValue(), generator);
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        private void writeArray(JsonParser parser, Node node, JsonGenerator generator, boolean captured) throws IOException {
+            for (Node child : node.children.values()) {
+                if (child.mutating && !child.path.isIndex(child.segment)) {
+                    throw child.path.notAnIndex(child.segment);
+                }
+            }
+            Set<Node> written = new HashSet<>();
+            generator.writeStartArray();
+            for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+                Node child = node.children.isEmpty() ? null : node.children.get(String.valueOf(i));
+                write(parser, child, generator, captured);
+                if (child != null) {
+                    written.add(child);
+                }
+            }
+            for (Node child : node.children.values()) {
+                if (child.mutating && !written.contains(child)) {
+                    writeMissing(child, generator);
+                }
+            }
+            generator.writeEndArray();
+        }
+
+        /**
+         * Write the value of a path which does not exist in the document, appended at the end of its parent.
+         */
+        private void writeMissing(Node node, JsonGenerator generator) throws IOException {
+            if (node.operation < 0) {
+                throw node.path.notFound(node.segment);
+            }
+            writeContent(traverse(value(node)), node, generator, true);
+        }
+
+        /**
+         * Keep the values copied from the original value or the values below it.
+         */
+        private void capture(JsonNode original, Node node) {
+            for (int operation : node.sources) {
+                values[operation] = original;
+            }
+            for (Node child : node.children.values()) {
+                if (child.capturing) {
+                    String name = child.path.name(child.segment);
+                    JsonNode value = child.path.isIndex(child.segment) && original.isArray()
+                        ? original.get(child.path.index(child.segment))
+                        : original.get(name);
+                    if (value != null) {
+                        capture(value, child);
+                    }
+                }
+            }
+        }
+
+        private JsonNode value(Node node) {
+            JsonNode value = values[node.operation];
+            if (value == null) {
+                MutationPlan.Operation operation = operations.get(node.operation);
+                throw new IllegalArgumentException(String.format("%s can't be streamed: %s was not found before %s in the document",
+                    operation, operation.source(), operation.target()));
+            }
+            return value;
+        }
+
+        private JsonParser traverse(JsonNode node) throws IOException {
+            JsonParser parser = node.traverse(mapper);
+            parser.nextToken();
+            return parser;
+        }
+    }
+
+    /**
+     * A segment of the paths of the operations.
+     */
+    private static final class Node {
+        private final JsonPath path;
+        private final int segment;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        /**
+         * The operations copying this value.
+         */
+        private final List<Integer> sources = new ArrayList<>();
+        /**
+         * The operation replacing this value, or -1.
+         */
+        private int operation = -1;
+        /**
+         * Whether this value or a value below it is modified.
+         */
+        private boolean mutating;
+        /**
+         * Whether this value or a value below it is copied.
+         */
+        private boolean capturing;
+
+        private Node(JsonPath path, int segment) {
+            this.path = path;
+            this.segment = segment;
+        }
+    }
+}
@@ -2,16 +2,17 @@ package com.fluminis.fluffytest;
 
 import org.openapitools.jackson.nullable.JsonNullableModule;
 import org.packagesettings.PackageLevelSettings;
+import org.packagesettings.Settings;
 
-import java.io.File;
-import java.net.URISyntaxException;
+import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.regex.Matcher;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -49,24 +50,82 @@ public final class TestUtils {
      * }</pre>
      */
     public static Reader read(String path) {
+        return read(path, PackageLevelSettings.get());
+    }
+
+    /**
+     * Same as {@link #read(String)}, with the resource folder of the given settings.
+     */
+    static FileReader read(String path, Map<String, Settings> settings) {
+        return new FileReader(getSource(path, settings), settings);
+    }
+
+    /**
+     * Read all the files of a folder located in the src/test/resources folder, sorted by path.
+     * <p>
+     * Files are read and parsed in parallel on the common ForkJoinPool before this method returns, so that data-driven
+     * tests only pay for the binding of each case:
+     * <pre>{@code
+     * static List<Reader> cases() {
+     *     return readAll("in/cases");
+     * }
+     *
+     * @ParameterizedTest
+     * @MethodSource("cases")
+     * void shouldHandleCase(Reader input) {
+     *     Order order = input.asObject(Order.class);
+     *     ...
+     * }
+     * }</pre>
+     */
+    public static List<Reader> readAll(String folder) {
+        return readAll(folder, "**");
+    }
+
+    /**
+     * Same as {@link #readAll(String)}, only for the files whose path relative to the folder matches the given glob,
+     * e.g. <code>*.json</code> for the JSON files of the folder itself, <code>**&#47;*.json</code> for those of its
+     * sub-folders as well.
+     */
+    public static List<Reader> readAll(String folder, String glob) {
+        // workers of the pool don't see the PackageSettings of the caller
+        Map<String, Settings> settings = PackageLevelSettings.get();
+
+        URL folderUrl = getResource(folder.replaceAll("[/\\\\]+$", ""), settings);
+        List<FixtureSource> sources;
         try {
-            String resourceFolder = PackageLevelSettings
-                    .getValueFor(FluffyTestPackageSettings.RESSOURCE_FOLDER, () -> "")
-                    .replaceAll("[/\\\\]", Matcher.quoteReplacement(File.separator));
-
-            String fullPath = resourceFolder.isEmpty()
-                    ? path
-                    : resourceFolder + File.separator + path;
-
-            URL resourceUrl = TestUtils.class.getClassLoader().getResource(fullPath);
-            if (resourceUrl == null) {
-                throw new RuntimeException("Could not read " + path);
-            }
-
-            return new FileReader(Paths.get(resourceUrl.toURI()));
-        } catch (URISyntaxException e) {
-            throw new RuntimeException(e);
+            sources = folderUrl == null ? null : FixtureSource.list(folderUrl, glob);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not list " + folder, e);
+        }
+        if (sources == null) {
+            throw new RuntimeException("Could not list " + folder);
         }
+        List<FileReader> readers = sources.stream()
+                .map(source -> new FileReader(source, settings))
+                .toList();
+        readers.parallelStream().forEach(FileReader::load);
+        return List.copyOf(readers);
+    }
+
+    private static FixtureSource getSource(String path, Map<String, Settings> settings) {
+        URL resourceUrl = getResource(path, settings);
+        if (resourceUrl == null) {
+            throw new RuntimeException("Could not read " + path);
+        }
+        return FixtureSource.of(resourceUrl);
+    }
+
+    private static URL getResource(String path, Map<String, Settings> settings) {
+        String resourceFolder = FluffyTestPackageSettings.RESSOURCE_FOLDER
+                .getValue(settings, () -> "")
+                .replaceAll("[/\\\\]", "/");
+
+        String fullPath = resourceFolder.isEmpty()
+                ? path
+                : resourceFolder + "/" + path;
+
+        return TestUtils.class.getClassLoader().getResource(fullPath);
     }
 
     /**
@@ -82,6 +141,45 @@ public final class TestUtils {
         return new FileReader(path);
     }
 
+    /**
+     * Same as {@link #read(String)}, the file is indexed instead of being parsed as a JsonNode tree, see
+     * {@link IndexedReader}.
+     * <pre>{@code
+     * Line line = readIndexed("in/big-order.json").asObject("order.lines.1000", Line.class);
+     * }</pre>
+     */
+    public static IndexedReader readIndexed(String path) {
+        return new IndexedReader(getSource(path, PackageLevelSettings.get()));
+    }
+
+    /**
+     * Same as {@link #read(Path)}, the file is indexed instead of being parsed as a JsonNode tree, see
+     * {@link IndexedReader}.
+     */
+    public static IndexedReader readIndexed(Path path) {
+        return new IndexedReader(FixtureSource.of(path));
+    }
+
+    /**
+     * Same as {@link #read(String)}, the file is read and parsed in the background, see {@link AsyncReader}.
+     * <pre>{@code
+     * CompletableFuture<Foo> content = readAsync("in/myfile.json").asObject(Foo.class);
+     * }</pre>
+     */
+    public static AsyncReader readAsync(String path) {
+        // resolved now, the executor threads don't see the PackageSettings of the caller
+        FileReader reader = read(path, PackageLevelSettings.get());
+        return new AsyncReader(CompletableFuture.supplyAsync(reader::load, FixtureExecutor.get()), FixtureExecutor.get());
+    }
+
+    /**
+     * Same as {@link #read(Path)}, the file is read and parsed in the background, see {@link AsyncReader}.
+     */
+    public static AsyncReader readAsync(Path path) {
+        FileReader reader = new FileReader(FixtureSource.of(path), PackageLevelSettings.get());
+        return new AsyncReader(CompletableFuture.supplyAsync(reader::load, FixtureExecutor.get()), FixtureExecutor.get());
+    }
+
     /**
      * Useful helper method to mutate an arbitrary Object (like a record, for example). Returns a Reader to manipulate it.
      * <pre>{@code
@@ -122,6 +220,23 @@ public final class TestUtils {
         return read(file).asObject(clazz);
     }
 
+    /**
+     * Start an assertion on the JSON content of a Reader, in its current state.
+     * <pre>{@code
+     * assertJson(from(order)).ignoringPaths("updateTime").isEqualTo(read("expected/order.json"));
+     * }</pre>
+     */
+    public static JsonAssert assertJson(Reader actual) {
+        return new JsonAssert(actual);
+    }
+
+    /**
+     * See {@link #assertJson(Reader)}.
+     */
+    public static JsonAssert assertJson(String actualJson) {
+        return new JsonAssert(actualJson);
+    }
+
     public static Instant utcTime(int year, int month, int dayOfMonth, int hour, int minute) {
         return LocalDateTime.of(year, month, dayOfMonth, hour, minute).toInstant(ZoneOffset.UTC);
     }
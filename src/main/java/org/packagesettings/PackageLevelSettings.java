@@ -1,44 +1,123 @@
 package org.packagesettings;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.*;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 // From https://github.com/approvals/ApprovalTests.Java/blob/master/approvaltests-util/src/main/java/org/packagesettings/PackageLevelSettings.java
 public class PackageLevelSettings {
     public static String PACKAGE_SETTINGS = "PackageSettings";
 
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    /**
+     * PackageSettings class of each package, per class loader. A package without a PackageSettings class is cached
+     * with {@link #NONE} so that the lookup is never attempted twice. Classes are held weakly, as they strongly reach
+     * their class loader: a discarded class loader, e.g. by an IDE or a build daemon, is then collected with its entry.
+     */
+    private static final Map<ClassLoader, Map<String, Reference<Class<?>>>> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Reference<Class<?>> NONE = new WeakReference<>(null);
+
+    /**
+     * Settings read from each PackageSettings class, stored by the class itself.
+     */
+    private static final ClassValue<Map<String, Settings>> SETTINGS = new ClassValue<>() {
+        @Override
+        protected Map<String, Settings> computeValue(Class<?> type) {
+            return getSettingsFor(type);
+        }
+    };
+
     public static Map<String, Settings> get() {
-        return getForStackTrace(Thread.currentThread().getStackTrace());
+        return WALKER.walk(frames -> collect(frames.map(StackWalker.StackFrame::getClassName).iterator()));
     }
 
     public static Map<String, Settings> getForStackTrace(StackTraceElement[] trace) {
-        Map<String, Settings> settings = new HashMap<>();
-        try {
-            HashSet<String> done = new HashSet<String>();
-            for (StackTraceElement element : trace) {
-                String packageName = getNextLevel(element.getClassName());
-                settings.putAll(getSettingsFor(packageName, done));
+        return collect(Arrays.stream(trace).map(StackTraceElement::getClassName).iterator());
+    }
+
+    /**
+     * @return The settings seen from the given class, for callers that are not on the stack of that class, like test
+     * extensions or worker threads.
+     */
+    public static Map<String, Settings> getFor(Class<?> clazz) {
+        return collect(Collections.singleton(clazz.getName()).iterator());
+    }
+
+    /**
+     * Forget every resolved PackageSettings.
+     * Static fields are read once per package, so tests rewriting them must call this method to see the new values.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            for (Map<String, Reference<Class<?>>> packages : CACHE.values()) {
+                for (Reference<Class<?>> reference : packages.values()) {
+                    Class<?> clazz = reference.get();
+                    if (clazz != null) {
+                        SETTINGS.remove(clazz);
+                    }
+                }
             }
-        } catch (Throwable t) {
-            if (t instanceof RuntimeException) {
-                throw (RuntimeException) t;
+            CACHE.clear();
+        }
+    }
+
+    private static Map<String, Settings> collect(Iterator<String> classNames) {
+        Map<String, Reference<Class<?>>> packages = CACHE.computeIfAbsent(getClassLoader(), __ -> new ConcurrentHashMap<>());
+        Map<String, Settings> settings = new HashMap<>();
+        Set<String> done = new HashSet<>();
+        String previous = null;
+        while (classNames.hasNext()) {
+            String packageName = getNextLevel(classNames.next());
+            // consecutive frames very often come from the same package
+            if (packageName != null && !packageName.equals(previous)) {
+                addSettingsFor(packageName, done, packages, settings);
+                previous = packageName;
             }
-            throw new RuntimeException(t);
         }
         return settings;
     }
 
-    private static Map<String, Settings> getSettingsFor(String packageName, HashSet<String> done) {
-        if (packageName == null || done.contains(packageName)) {
-            return Collections.emptyMap();
+    private static void addSettingsFor(String packageName, Set<String> done, Map<String, Reference<Class<?>>> packages, Map<String, Settings> settings) {
+        if (packageName == null || !done.add(packageName)) {
+            return;
+        }
+        addSettingsFor(getNextLevel(packageName), done, packages, settings);
+        Reference<Class<?>> own = packages.get(packageName);
+        if (own == null) {
+            own = findSettingsClass(packageName);
+            Reference<Class<?>> concurrent = packages.putIfAbsent(packageName, own);
+            own = concurrent == null ? own : concurrent;
+        }
+        // a class can't be collected before its class loader, the key of the packages
+        Class<?> clazz = own.get();
+        if (clazz != null) {
+            settings.putAll(SETTINGS.get(clazz));
         }
-        Map<String, Settings> settings = new HashMap<>(getSettingsFor(getNextLevel(packageName), done));
+    }
+
+    private static Reference<Class<?>> findSettingsClass(String packageName) {
+        try {
+            return new WeakReference<>(Class.forName(packageName + "." + PACKAGE_SETTINGS, true, getClassLoader()));
+        } catch (Throwable e) {
+            return NONE;
+        }
+    }
+
+    private static Map<String, Settings> getSettingsFor(Class<?> clazz) {
+        Map<String, Settings> settings = new HashMap<>();
         try {
-            Class<?> clazz = loadClass(packageName + "." + PACKAGE_SETTINGS);
             java.lang.reflect.Field[] declaredFields = clazz.getDeclaredFields();
             Object o = clazz.getDeclaredConstructor().newInstance();
             for (java.lang.reflect.Field field : declaredFields) {
@@ -51,8 +130,7 @@ public class PackageLevelSettings {
         } catch (Throwable e) {
             //Ignore
         }
-        done.add(packageName);
-        return settings;
+        return Collections.unmodifiableMap(settings);
     }
 
     private static Settings getFieldValue(java.lang.reflect.Field field, Object from) {
@@ -72,12 +150,16 @@ public class PackageLevelSettings {
 
     public static Class<?> loadClass(String className) {
         try {
-            return Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            return Class.forName(className, true, getClassLoader());
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static ClassLoader getClassLoader() {
+        return Thread.currentThread().getContextClassLoader();
+    }
+
     public static <T> T getValueFor(String key) {
         Settings settings = get().get(key);
         return settings == null ? null : (T) settings.value();
@@ -90,4 +172,4 @@ public class PackageLevelSettings {
     public static <T> T getValueFor(org.packagesettings.Field<T> field, Supplier<T> defaultSupplier) {
         return field.getValue(get(), defaultSupplier);
     }
-}
\ No newline at end of file
+}
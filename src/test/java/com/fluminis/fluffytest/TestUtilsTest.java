@@ -2,13 +2,51 @@ package com.fluminis.fluffytest;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.fluminis.fluffytest.TestUtils.read;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 
@@ -52,6 +90,168 @@ class TestUtilsTest {
         }
     }
 
+    @Nested
+    class ReadFromJar {
+
+        @Test
+        void shouldReadResourcePackagedInJar(@TempDir Path tempDir) throws IOException {
+            Path jar = tempDir.resolve("fixtures.jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                out.putNextEntry(new JarEntry("in/jarred small.json"));
+                out.write("{\"foo\": \"Hello\", \"bar\": \"Jar\"}".getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+                Reader reader = new FileReader(FixtureSource.of(classLoader.getResource("in/jarred small.json")));
+
+                assertThat(reader.asObject(Small.class)).isEqualTo(new Small("Hello", "Jar"));
+                assertThat(reader.asString()).isEqualToIgnoringWhitespace("{\"foo\": \"Hello\", \"bar\": \"Jar\"}");
+            }
+        }
+
+        @Test
+        void shouldListFolderOfJarWithoutKeepingItOpen(@TempDir Path tempDir) throws IOException {
+            Path jar = tempDir.resolve("fixtures.jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                out.putNextEntry(new JarEntry("in/"));
+                out.closeEntry();
+                for (String name : List.of("in/b.json", "in/a.json")) {
+                    out.putNextEntry(new JarEntry(name));
+                    out.write(("{\"foo\": \"" + name + "\"}").getBytes(StandardCharsets.UTF_8));
+                    out.closeEntry();
+                }
+            }
+
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+                List<FixtureSource> sources = FixtureSource.list(classLoader.getResource("in"), "*.json");
+
+                assertThatThrownBy(() -> FileSystems.getFileSystem(URI.create("jar:" + jar.toUri())))
+                    .isInstanceOf(FileSystemNotFoundException.class);
+                assertThat(sources).hasSize(2);
+                assertThat(new FileReader(sources.get(0)).asObject(JsonNode.class).get("foo").asText()).isEqualTo("in/a.json");
+                assertThat(new FileReader(sources.get(1)).asObject(JsonNode.class).get("foo").asText()).isEqualTo("in/b.json");
+            }
+        }
+    }
+
+    @Nested
+    class ReadAsync {
+
+        @Test
+        void shouldReadInBackground() {
+            CompletableFuture<Big> big = TestUtils.readAsync("in/big.json").asObject(Big.class);
+            CompletableFuture<String> small = TestUtils.readAsync("in/small.json").asString();
+
+            assertThat(big.join()).isEqualTo(new Big(new Small("Hello", "Guys")));
+            assertThat(small.join()).contains("\"foo\": \"Hello\"");
+        }
+
+        @Test
+        void shouldComposeMutatorsWithoutSharingThem() {
+            CompletableFuture<String> value = CompletableFuture.supplyAsync(() -> "Women");
+            AsyncReader baseline = TestUtils.readAsync("in/big.json").mutate(Mutators.setValue("buzz.foo", "Goodbye"));
+
+            CompletableFuture<Big> variant = baseline.mutate(value, bar -> Mutators.setValue("buzz.bar", bar)).asObject(Big.class);
+
+            assertThat(variant.join()).isEqualTo(new Big(new Small("Goodbye", "Women")));
+            assertThat(baseline.join().asObject(Big.class)).isEqualTo(new Big(new Small("Goodbye", "Guys")));
+        }
+
+        @Test
+        void shouldFailWhenJoiningMissingFixture() {
+            assertThatThrownBy(() -> TestUtils.readAsync(Path.of("unknown.json")).join())
+                .hasMessage("Could not read unknown.json");
+        }
+    }
+
+    @Nested
+    class ReadAll {
+
+        static List<Reader> lists() {
+            return TestUtils.readAll("in/", "*list.json");
+        }
+
+        @Test
+        void shouldReadFilesSortedByPath() {
+            List<Reader> readers = TestUtils.readAll("in");
+
+            assertThat(readers).extracting(reader -> Path.of(reader.toString()).getFileName().toString())
+                .containsExactly("big.json", "list.json", "nested-list.json", "small.json");
+            assertThat(readers.get(3).asObject(Small.class)).isEqualTo(new Small("Hello", "Guys"));
+        }
+
+        @ParameterizedTest
+        @MethodSource("lists")
+        void shouldFeedParameterizedTests(Reader list) {
+            assertThat(list.toString()).endsWith("list.json");
+            assertThat(list.asString()).contains("Women");
+        }
+
+        @Test
+        void shouldFailWhenFolderDoesNotExist() {
+            assertThatThrownBy(() -> TestUtils.readAll("unknown"))
+                .hasMessage("Could not list unknown");
+        }
+    }
+
+    @Nested
+    class ReplacePlaceholders {
+
+        @Test
+        void shouldReplaceAllPlaceholdersInOnePass() {
+            String actual = read("in/list.json")
+                .mutate(Mutators.replacePlaceholders(Map.of("Hello", "Hi", "Hell", "Heaven", "Guys", "Folks")))
+                .asString();
+            assertThat(actual).isEqualToIgnoringWhitespace("""
+            [
+              {
+                "foo": "Hi",
+                "bar": "Folks"
+              },
+              {
+                "foo": "Hi",
+                "bar": "Women"
+              }
+            ]""");
+        }
+
+        @Test
+        void shouldRenderTypedValues() {
+            Small actual = read("in/small.json")
+                .mutate(Mutators.replacePlaceholders("Hello", LocalDate.of(2025, 6, 4)))
+                .mutate(Mutators.replacePlaceholders("Guys", 42))
+                .asObject(Small.class);
+            assertThat(actual).isEqualTo(new Small("2025-06-04", "42"));
+        }
+
+        @Test
+        void shouldRenderValuesWithTheObjectMapperOfTheReader() {
+            ObjectMapper objectMapper = TestUtils.createObjectMapper().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            String actual = read("in/small.json")
+                .withObjectMapper(objectMapper)
+                .mutate(Mutators.replacePlaceholders("Hello", LocalDate.of(2025, 6, 4)))
+                .asString();
+            assertThat(actual).contains("[2025,6,4]");
+        }
+
+        @Test
+        void shouldEscapeValues() {
+            Small actual = read("in/small.json")
+                .mutate(Mutators.replacePlaceholders(Map.of("Hello", "Say \"Hi\"\\", "Guys", new StringBuilder("line\nbreak"))))
+                .asObject(Small.class);
+            assertThat(actual).isEqualTo(new Small("Say \"Hi\"\\", "line\nbreak"));
+        }
+
+        @Test
+        void shouldKeepRegularExpressionsOfReplaceAll() {
+            Small actual = read("in/small.json")
+                .mutate(Mutators.replaceAll("H.llo", "Hi"), Mutators.replacePlaceholders("G.ys", "Folks"))
+                .asObject(Small.class);
+            assertThat(actual).isEqualTo(new Small("Hi", "Guys"));
+        }
+    }
+
     @Nested
     class ReadAsObject {
 
@@ -115,6 +315,712 @@ class TestUtilsTest {
         }
     }
 
+    @Nested
+    class ReadSubtree {
+
+        @Test
+        void shouldReadValueAtPath() {
+            assertThat(read("in/big.json").asObject("buzz", Small.class)).isEqualTo(new Small("Hello", "Guys"));
+            assertThat(read("in/nested-list.json").asObject("buzz.items.1", Small.class)).isEqualTo(new Small("Hello", "Women"));
+            assertThat(read("in/nested-list.json").asObject("buzz.items", new TypeReference<List<Small>>() {
+            })).containsExactly(new Small("Hello", "Guys"), new Small("Hello", "Women"));
+        }
+
+        @Test
+        void shouldReadMutatedSubtree() {
+            Reader reader = read("in/big.json").mutate(Mutators.setValue("buzz.foo", "Goodbye"));
+
+            ObjectNode buzz = reader.at("buzz");
+            buzz.put("bar", "Women");
+
+            assertThat(buzz.get("foo").asText()).isEqualTo("Goodbye");
+            assertThat(reader.asObject(Big.class)).isEqualTo(new Big(new Small("Goodbye", "Guys")));
+            assertThat(TestUtils.from(new Big(new Small("Hello", "Guys"))).<TextNode>at("buzz.bar").asText()).isEqualTo("Guys");
+        }
+
+        @Test
+        void shouldFailWhenPathDoesNotExist() {
+            assertThatThrownBy(() -> read("in/big.json").at("buzz.unknown"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Could not find node unknown in buzz.");
+        }
+    }
+
+    @Nested
+    class StreamElements {
+
+        @Test
+        void shouldStreamTopLevelArray() {
+            try (Stream<Small> actual = read("in/list.json").stream(Small.class)) {
+                assertThat(actual).containsExactly(new Small("Hello", "Guys"), new Small("Hello", "Women"));
+            }
+        }
+
+        @Test
+        void shouldStreamArrayAtPath() {
+            try (Stream<Small> actual = read("in/nested-list.json").stream("buzz.items", Small.class)) {
+                assertThat(actual).containsExactly(new Small("Hello", "Guys"), new Small("Hello", "Women"));
+            }
+        }
+
+        @Test
+        void shouldIterateThroughMutatedTree() {
+            Iterator<Small> actual = read("in/list.json")
+                .mutate(Mutators.setValue("1.bar", "Child"))
+                .iterator(Small.class);
+            assertThat(actual).toIterable().containsExactly(new Small("Hello", "Guys"), new Small("Hello", "Child"));
+        }
+
+        @Test
+        void shouldFailWhenNotAnArray() {
+            assertThatThrownBy(() -> read("in/nested-list.json").stream("name", Small.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Expected an array");
+        }
+    }
+
+    @Nested
+    class CompiledPath {
+
+        private static final JsonPath FIRST_FOO = JsonPath.compile("0.foo");
+
+        @Test
+        void shouldMutateWithCompiledPath() {
+            List<Small> actual = read("in/list.json")
+                .mutate(Mutators.setValue(FIRST_FOO, "Goodbye"))
+                .mutate(Mutators.copy(FIRST_FOO, JsonPath.compile("1.foo")))
+                .asObject(new TypeReference<>() {
+                });
+            assertThat(actual).containsExactly(new Small("Goodbye", "Guys"), new Small("Goodbye", "Women"));
+        }
+
+        @Test
+        void shouldReportMissingNode() {
+            assertThatThrownBy(() -> read("in/big.json").mutate(Mutators.setValue("buzz.missing.foo", "Goodbye")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("""
+                    Could not find node missing in buzz.
+                      buzz.missing
+                           ^^^^^^^""");
+        }
+    }
+
+    @Nested
+    class MutationPlans {
+
+        static final MutationPlan PLAN = MutationPlan.builder()
+            .copy("buzz.items.0", "buzz.items.2")
+            .setValue("buzz.items.0.foo", "Goodbye")
+            .setNull("buzz.items.1.bar")
+            .setValue("name", "planned")
+            .build();
+
+        @Test
+        void shouldApplyAllOperations() {
+            Reader reader = read("in/nested-list.json").mutate(PLAN);
+
+            assertThat(reader.asObject("buzz.items", new TypeReference<List<Small>>() {
+            })).containsExactly(new Small("Goodbye", "Guys"), new Small("Hello", null), new Small("Hello", "Guys"));
+            assertThat(reader.<ObjectNode>asJsonNode().get("name").asText()).isEqualTo("planned");
+        }
+
+        @Test
+        void shouldBeReusableAcrossReadersAndForks() {
+            Reader baseline = read("in/nested-list.json");
+            baseline.asJsonNode();
+
+            Reader first = baseline.fork().mutate(PLAN);
+            Reader second = read("in/nested-list.json").mutate(PLAN);
+
+            assertThat(first.<ObjectNode>asJsonNode()).isEqualTo(second.asJsonNode());
+            assertThat(baseline.asObject("buzz.items.0", Small.class)).isEqualTo(new Small("Hello", "Guys"));
+        }
+
+        @Test
+        void shouldReportAllInvalidPathsWithoutMutating() {
+            MutationPlan plan = MutationPlan.builder()
+                .setValue("buzz.foo", "Goodbye")
+                .setValue("unknown.foo", "Goodbye")
+                .copy("buzz.missing", "buzz.bar")
+                .build();
+            Reader reader = read("in/big.json");
+
+            assertThatThrownBy(() -> reader.mutate(plan))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Could not find node unknown in ")
+                .hasMessageContaining("Could not find node missing in buzz.");
+            assertThat(reader.asObject(Big.class)).isEqualTo(new Big(new Small("Hello", "Guys")));
+        }
+
+        @Test
+        void shouldCopySourceBeforeLaterOperations() {
+            MutationPlan plan = MutationPlan.builder()
+                .copy("buzz.foo", "buzz.bar")
+                .setValue("buzz.foo", "Goodbye")
+                .build();
+
+            assertThat(read("in/big.json").mutate(plan).asObject(Big.class)).isEqualTo(new Big(new Small("Goodbye", "Hello")));
+        }
+
+        @Test
+        void shouldRejectCopyOfSourceModifiedBefore() {
+            assertThatThrownBy(() -> MutationPlan.builder().setValue("buzz.foo", "Goodbye").copy("buzz", "other").build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("copy(buzz, other) reads buzz, modified by setValue(buzz.foo) declared before it");
+        }
+
+        @Test
+        void shouldRejectOperationsOverriddenByParent() {
+            assertThatThrownBy(() -> MutationPlan.builder().setNull("buzz.foo").setValue("buzz", "Goodbye").build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("setValue(buzz) overrides setNull(buzz.foo) declared before it");
+        }
+    }
+
+    @Nested
+    class Fork {
+
+        @Test
+        void shouldNotShareMutationsBetweenForks() {
+            Reader baseline = read("in/big.json").mutate(Mutators.setValue("buzz.foo", "Goodbye"));
+
+            Big first = baseline.fork().mutate(Mutators.setValue("buzz.bar", "Women")).asObject(Big.class);
+            Big second = baseline.fork().mutate(Mutators.setNull("buzz.bar")).asObject(Big.class);
+
+            assertThat(first).isEqualTo(new Big(new Small("Goodbye", "Women")));
+            assertThat(second).isEqualTo(new Big(new Small("Goodbye", null)));
+            assertThat(baseline.asObject(Big.class)).isEqualTo(new Big(new Small("Goodbye", "Guys")));
+        }
+
+        @Test
+        void shouldNotShareCopiedNodes() {
+            Reader baseline = read("in/list.json").mutate(Mutators.setValue("0.bar", "Guys"));
+
+            Reader fork = baseline.fork()
+                .mutate(Mutators.copy("0", "1"))
+                .mutate(Mutators.setValue("1.foo", "Goodbye"));
+
+            assertThat(fork.asObject(new TypeReference<List<Small>>() {
+            })).containsExactly(new Small("Hello", "Guys"), new Small("Goodbye", "Guys"));
+            assertThat(baseline.asObject(new TypeReference<List<Small>>() {
+            })).containsExactly(new Small("Hello", "Guys"), new Small("Hello", "Women"));
+        }
+
+        @Test
+        void shouldCopyTreeWhenMutatedByArbitraryFunction() {
+            Reader baseline = read("in/small.json");
+            baseline.asJsonNode();
+
+            Reader fork = baseline.fork()
+                .mutate((root, objectMapper) -> ((ObjectNode) root).set("foo", new TextNode("Goodbye")));
+
+            assertThat(fork.asObject(Small.class)).isEqualTo(new Small("Goodbye", "Guys"));
+            assertThat(baseline.asObject(Small.class)).isEqualTo(new Small("Hello", "Guys"));
+        }
+
+        @Test
+        void shouldReadStringThroughMutatedTree() {
+            String actual = read("in/small.json")
+                .mutate(Mutators.setValue("foo", "Goodbye"))
+                .asString();
+            assertThat(actual).isEqualToIgnoringWhitespace("""
+            {
+              "foo": "Goodbye",
+              "bar": "Guys"
+            }""");
+        }
+    }
+
+    @Nested
+    class AssertJson {
+
+        @Test
+        void shouldPassWhenDocumentsAreEqual() {
+            TestUtils.assertJson(read("in/big.json")).isEqualTo(read("in/big.json"));
+            TestUtils.assertJson(TestUtils.from(new Big(new Small("Hello", "Guys")))).isEqualTo(read("in/big.json"));
+        }
+
+        @Test
+        void shouldReportDifferencesByPath() {
+            Reader actual = read("in/nested-list.json")
+                .mutate(Mutators.setValue("buzz.items.1.foo", "Goodbye"))
+                .mutate(Mutators.setNull("name"))
+                .mutate(Mutators.setValue("buzz.extra", true));
+
+            assertThatThrownBy(() -> TestUtils.assertJson(actual).isEqualTo(read("in/nested-list.json")))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("name: expected \"nested\" but was null")
+                .hasMessageContaining("buzz.items.1.foo: expected \"Hello\" but was \"Goodbye\"")
+                .hasMessageContaining("buzz.extra: unexpected true");
+        }
+
+        @Test
+        void shouldIgnorePaths() {
+            Reader actual = read("in/nested-list.json")
+                .mutate(Mutators.setValue("buzz.items.1.foo", "Goodbye"))
+                .mutate(Mutators.setNull("name"));
+
+            TestUtils.assertJson(actual).ignoringPaths("name", "buzz.items.1.foo").isEqualTo(read("in/nested-list.json"));
+        }
+
+        @Test
+        void shouldIgnoreKeyOrderWhenAsked() {
+            String reordered = "{\"bar\": \"Guys\", \"foo\": \"Hello\"}";
+
+            TestUtils.assertJson(reordered).ignoringKeyOrder().isEqualTo(read("in/small.json"));
+            assertThatThrownBy(() -> TestUtils.assertJson(reordered).isEqualTo(read("in/small.json")))
+                .hasMessageContaining("<root>: fields in a different order, expected [foo, bar] but was [bar, foo]");
+        }
+
+        @Test
+        void shouldStopAfterMaxDifferences() {
+            assertThatThrownBy(() -> TestUtils.assertJson("[1, 2, 3]").withMaxDifferences(2).isEqualTo("[4, 5, 6]"))
+                .hasMessageContaining("0: expected 4 but was 1")
+                .hasMessageContaining("1: expected 5 but was 2")
+                .hasMessageNotContaining("2: expected 6")
+                .hasMessageContaining("stopped after 2 differences");
+        }
+
+        @Test
+        void shouldNotTellStoppedWhenAllDifferencesAreReported() {
+            assertThatThrownBy(() -> TestUtils.assertJson("[1, 2, 3]").withMaxDifferences(2).isEqualTo("[4, 5, 3]"))
+                .hasMessageContaining("1: expected 5 but was 2")
+                .hasMessageNotContaining("stopped after");
+            assertThatThrownBy(() -> TestUtils.assertJson("{\"foo\": 1}").withMaxDifferences(1).isEqualTo("{\"foo\": 2}"))
+                .hasMessageNotContaining("stopped after");
+        }
+    }
+
+    @Nested
+    class ReadPrimitiveArrays {
+
+        @Test
+        void shouldReadNumbersIntoPrimitiveArrays() {
+            Reader reader = read("numbers/series.json");
+
+            assertThat(reader.asDoubleArray("series.samples")).containsExactly(1.5, 2, -3.25, 1000);
+            assertThat(reader.asLongArray("series.counts")).containsExactly(1, 2, 3_000_000_000L);
+            assertThat(TestUtils.readIndexed("numbers/series.json").asIntArray("series.empty")).isEmpty();
+        }
+
+        @Test
+        void shouldGrowArrays(@TempDir Path folder) throws IOException {
+            Path file = folder.resolve("large.json");
+            Files.writeString(file, IntStream.range(0, 10_000).mapToObj(String::valueOf).collect(Collectors.joining(",", "{\"values\":[", "]}")));
+
+            int[] values = TestUtils.read(file).asIntArray("values");
+
+            assertThat(values).hasSize(10_000).startsWith(0, 1, 2).endsWith(9_999);
+        }
+
+        @Test
+        void shouldReadMutatedContent() {
+            double[] samples = read("numbers/series.json").mutate(Mutators.setValue("series.samples.1", 4)).asDoubleArray("series.samples");
+
+            assertThat(samples).containsExactly(1.5, 4, -3.25, 1000);
+        }
+
+        @Test
+        void shouldRejectOtherValues() {
+            assertThatThrownBy(() -> read("numbers/series.json").asLongArray("series.samples"))
+                .hasMessageStartingWith("Expected an integer at series.samples.0 in ")
+                .hasMessageEndingWith(" but found VALUE_NUMBER_FLOAT");
+            assertThatThrownBy(() -> read("numbers/series.json").asDoubleArray("series.labels"))
+                .hasMessageEndingWith(" but found VALUE_STRING");
+            assertThatThrownBy(() -> read("numbers/series.json").asIntArray("series.counts"))
+                .hasMessageStartingWith("Expected a number fitting in int at series.counts.2 in ")
+                .hasMessageEndingWith(" but found 3000000000");
+            assertThatThrownBy(() -> TestUtils.readIndexed("numbers/series.json").asIntArray("series.counts"))
+                .hasMessageStartingWith("Expected a number fitting in int at series.counts.2 in ");
+        }
+    }
+
+    @Nested
+    class ReadIndexed {
+
+        @Test
+        void shouldReadValuesFromIndex() {
+            IndexedReader reader = TestUtils.readIndexed("in/nested-list.json");
+
+            assertThat(reader.asObject("buzz.items.1", Small.class)).isEqualTo(new Small("Hello", "Women"));
+            assertThat(reader.<TextNode>at("buzz.skipped.2.foo").asText()).isEqualTo("nope");
+            assertThat(reader.asObject("name", String.class)).isEqualTo("nested");
+            assertThat(reader.asString()).isEqualTo(read("in/nested-list.json").asString());
+            assertThat(reader.indexSize()).isEqualTo(24);
+        }
+
+        @Test
+        void shouldApplyMutatorsWithoutTree() {
+            IndexedReader baseline = TestUtils.readIndexed("in/big.json").mutate(Mutators.setValue("buzz.foo", "Goodbye"));
+
+            Big copied = baseline.fork().mutate(Mutators.copy("buzz.bar", "buzz.foo")).asObject(Big.class);
+
+            assertThat(copied).isEqualTo(new Big(new Small("Guys", "Guys")));
+            assertThat(baseline.asObject(Big.class)).isEqualTo(new Big(new Small("Goodbye", "Guys")));
+            assertThat(baseline.<TextNode>at("buzz.foo").asText()).isEqualTo("Goodbye");
+            assertThat(baseline.indexSize()).isPositive();
+        }
+
+        @Test
+        void shouldApplyMutatorsOnce() {
+            AtomicInteger serializations = new AtomicInteger();
+            Object counted = new Object() {
+                public String getFoo() {
+                    serializations.incrementAndGet();
+                    return "Goodbye";
+                }
+            };
+            IndexedReader reader = TestUtils.readIndexed("in/big.json").mutate(Mutators.setValue("buzz", counted));
+
+            assertThat(reader.asObject("buzz", Small.class)).isEqualTo(new Small("Goodbye", null));
+            assertThat(reader.<TextNode>at("buzz.foo").asText()).isEqualTo("Goodbye");
+            assertThat(reader.asString()).contains("Goodbye");
+            assertThat(serializations).hasValue(1);
+        }
+
+        @Test
+        void shouldBuildTreeForOtherMutators() {
+            IndexedReader reader = TestUtils.readIndexed("in/big.json")
+                .mutate(Mutators.setValue("buzz.foo", "Goodbye"))
+                .mutate((node, mapper) -> ((ObjectNode) node.get("buzz")).put("bar", "Women"));
+
+            assertThat(reader.asObject(Big.class)).isEqualTo(new Big(new Small("Goodbye", "Women")));
+            assertThat(reader.indexSize()).isZero();
+        }
+
+        @Test
+        void shouldStreamElementsFromIndex() {
+            try (Stream<Small> items = TestUtils.readIndexed("in/nested-list.json").stream("buzz.items", Small.class)) {
+                assertThat(items).extracting(Small::bar).containsExactly("Guys", "Women");
+            }
+        }
+
+        @Test
+        void shouldCheckPathsWhenReading() {
+            IndexedReader reader = TestUtils.readIndexed("in/big.json").mutate(Mutators.setValue("buzz.unknown.foo", "Goodbye"));
+
+            assertThatThrownBy(() -> reader.asObject(Big.class)).hasMessageStartingWith("Could not find node unknown in buzz.");
+        }
+    }
+
+    @Nested
+    class WatchingCache {
+
+        @TempDir
+        Path folder;
+
+        @Test
+        void shouldKeepWatchingFilesWhileOtherFoldersChange() throws IOException, InterruptedException {
+            Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+            Path other = folder.resolveSibling("other").resolve("fixture.json");
+            try (FixtureCache cache = FixtureCache.watching(1024 * 1024)) {
+                assertThat(whileChanged(cache, file, other)).isTrue();
+                assertThat(cache.isWatched(file)).isTrue();
+            }
+        }
+
+        @Test
+        void shouldWatchAgainOnceFileWasChecked() throws IOException, InterruptedException {
+            Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+            try (FixtureCache cache = FixtureCache.watching(1024 * 1024)) {
+                whileChanged(cache, file, folder.resolve("other.json"));
+
+                assertThat(new String(cache.get(file).bytes(), StandardCharsets.UTF_8)).isEqualTo("{\"foo\":\"Hello\"}");
+                assertThat(cache.isWatched(file)).isTrue();
+            }
+        }
+
+        @Test
+        void shouldCheckFilesOnceClosed() throws IOException {
+            Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+            FixtureCache cache = FixtureCache.watching(1024 * 1024);
+            cache.get(file);
+            assertThat(cache.isWatched(file)).isTrue();
+
+            cache.close();
+            Files.writeString(file, "{\"foo\":\"Goodbye!\"}");
+
+            assertThat(cache.isWatched(file)).isFalse();
+            assertThat(new String(cache.get(file).bytes(), StandardCharsets.UTF_8)).isEqualTo("{\"foo\":\"Goodbye!\"}");
+            assertThat(cache.isWatched(file)).isFalse();
+        }
+
+        /**
+         * Read the file again and again while changes of another file are reported.
+         *
+         * @return Whether the file was watched after each read.
+         */
+        private static boolean whileChanged(FixtureCache cache, Path file, Path changed) throws InterruptedException {
+            AtomicBoolean stop = new AtomicBoolean();
+            Thread changes = new Thread(() -> {
+                while (!stop.get()) {
+                    cache.invalidate(changed);
+                }
+            });
+            changes.start();
+            boolean watched = true;
+            try {
+                for (int i = 0; i < 200; i++) {
+                    cache.clear();
+                    cache.get(file);
+                    watched &= cache.isWatched(file);
+                }
+            } finally {
+                stop.set(true);
+                changes.join();
+            }
+            return watched;
+        }
+    }
+
+    @Nested
+    class BinaryCacheIndex {
+
+        @TempDir
+        Path folder;
+
+        @Test
+        void shouldCompactIndexAndDeleteOutdatedFiles() throws IOException {
+            Path directory = folder.resolve("cache");
+            Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+            parse(new BinaryFixtureCache(directory), file);
+            Files.writeString(file, "{\"foo\":\"Goodbye\"}");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+            parse(new BinaryFixtureCache(directory), file);
+            assertThat(Files.readAllLines(directory.resolve("index"))).hasSize(2);
+            assertThat(cachedFiles(directory)).hasSize(2);
+
+            // loaded with two lines for the same file
+            assertThat(parse(new BinaryFixtureCache(directory), file).get("foo").asText()).isEqualTo("Goodbye");
+
+            assertThat(Files.readAllLines(directory.resolve("index"))).hasSize(1);
+            assertThat(cachedFiles(directory)).hasSize(1);
+            assertThat(parse(new BinaryFixtureCache(directory), file).get("foo").asText()).isEqualTo("Goodbye");
+        }
+
+        private static JsonNode parse(BinaryFixtureCache cache, Path file) throws IOException {
+            ObjectMapper mapper = ObjectMappers.defaultObjectMapper();
+            try (JsonParser parser = cache.createParser(file, () -> {
+                try {
+                    return Files.readAllBytes(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, mapper)) {
+                return mapper.readTree(parser);
+            }
+        }
+
+        private static List<Path> cachedFiles(Path directory) throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> file.toString().endsWith(".sml")).toList();
+            }
+        }
+    }
+
+    @Nested
+    class StreamMutations {
+
+        @Test
+        void shouldGiveSameResultAsTreeMutations() throws IOException {
+            BiConsumer<JsonNode, ObjectMapper> plan = MutationPlan.builder()
+                .setValue("buzz.bar", new Small("a", "b"))
+                .setNull("buzz.bar.foo")
+                .build();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            StreamingRewriter.of(read("in/big.json"))
+                .mutate(Mutators.setValue("buzz.foo", "Goodbye"))
+                .mutate(plan)
+                .writeTo(out);
+
+            assertThat(ObjectMappers.defaultObjectMapper().readTree(out.toByteArray()))
+                .isEqualTo(read("in/big.json").mutate(Mutators.setValue("buzz.foo", "Goodbye"), plan).asJsonNode());
+        }
+
+        @Test
+        void shouldAppendMissingValues(@TempDir Path folder) {
+            Path target = folder.resolve("rewritten.json");
+
+            StreamingRewriter.of(read("in/nested-list.json"))
+                .mutate(Mutators.setValue("buzz.items.0.foo", "first"))
+                .mutate(Mutators.setValue("buzz.items.5", Map.of("foo", "appended")))
+                .writeTo(target);
+
+            JsonNode expected = read("in/nested-list.json")
+                .mutate(Mutators.setValue("buzz.items.0.foo", "first"))
+                .mutate(Mutators.setValue("buzz.items.5", Map.of("foo", "appended")))
+                .asJsonNode();
+            assertThat(TestUtils.read(target).<JsonNode>asJsonNode()).isEqualTo(expected);
+        }
+
+        @Test
+        void shouldCopyValuesReadBefore() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            StreamingRewriter.of(read("in/big.json"))
+                .mutate(Mutators.copy("buzz.foo", "buzz.bar"))
+                .writeTo(out);
+
+            assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"buzz\":{\"foo\":\"Hello\",\"bar\":\"Hello\"}}");
+        }
+
+        @Test
+        void shouldFailToCopyValuesReadAfter() {
+            StreamingRewriter rewriter = StreamingRewriter.of(read("in/big.json")).mutate(Mutators.copy("buzz.bar", "buzz.foo"));
+
+            assertThatThrownBy(() -> rewriter.writeTo(new ByteArrayOutputStream()))
+                .hasMessage("copy(buzz.bar, buzz.foo) can't be streamed: buzz.bar was not found before buzz.foo in the document");
+        }
+
+        @Test
+        void shouldLeaveTargetUntouchedWhenRewriteFails(@TempDir Path folder) throws IOException {
+            Path target = Files.writeString(folder.resolve("rewritten.json"), "previous");
+            StreamingRewriter rewriter = StreamingRewriter.of(read("in/big.json")).mutate(Mutators.copy("buzz.bar", "buzz.foo"));
+
+            assertThatThrownBy(() -> rewriter.writeTo(target)).isInstanceOf(IllegalArgumentException.class);
+
+            assertThat(Files.readString(target)).isEqualTo("previous");
+            try (Stream<Path> files = Files.list(folder)) {
+                assertThat(files).containsExactly(target);
+            }
+        }
+
+        @Test
+        void shouldRejectMutatorsWhichCanNotBeStreamed() {
+            StreamingRewriter rewriter = StreamingRewriter.of(read("in/big.json")).mutate(Mutators.setValue("buzz.foo", "Goodbye"));
+
+            assertThatThrownBy(() -> rewriter.mutate(Mutators.copy("buzz.foo", "buzz.bar")))
+                .hasMessage("copy(buzz.foo, buzz.bar) can't be streamed: buzz.foo is modified by setValue(buzz.foo) declared before it");
+            assertThatThrownBy(() -> rewriter.mutate((node, mapper) -> ((ObjectNode) node).removeAll()))
+                .hasMessageStartingWith("lambda in ")
+                .hasMessageEndingWith(" can't be streamed, only the mutators of Mutators and MutationPlans can");
+        }
+
+        @Test
+        void shouldFailWhenParentDoesNotExist() {
+            StreamingRewriter rewriter = StreamingRewriter.of(read("in/big.json")).mutate(Mutators.setValue("buzz.unknown.foo", "Goodbye"));
+
+            assertThatThrownBy(() -> rewriter.writeTo(new ByteArrayOutputStream()))
+                .hasMessageStartingWith("Could not find node unknown in buzz.");
+        }
+    }
+
+    @Nested
+    class GeneratePayloads {
+
+        @Test
+        void shouldWriteVariantsOfTemplate() throws IOException {
+            Reader template = read("in/big.json");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            PayloadGenerator.of(template)
+                .mutate(i -> Mutators.setValue("buzz.foo", "Hello " + i))
+                .writeTo(out, 3);
+
+            assertThat(ObjectMappers.defaultObjectMapper().readValue(out.toByteArray(), new TypeReference<List<Big>>() {
+            })).containsExactly(
+                new Big(new Small("Hello 0", "Guys")),
+                new Big(new Small("Hello 1", "Guys")),
+                new Big(new Small("Hello 2", "Guys")));
+            assertThat(template.asObject(Big.class)).isEqualTo(new Big(new Small("Hello", "Guys")));
+        }
+
+        @Test
+        void shouldWriteChunksInOrder(@TempDir Path folder) {
+            Path payload = folder.resolve("payload.json");
+
+            PayloadGenerator.of(read("in/small.json"))
+                .mutate(i -> Mutators.setValue("foo", i))
+                .mutate(i -> Mutators.setNull("bar"))
+                .parallelism(3)
+                .chunkSize(2)
+                .writeTo(payload, 7);
+
+            assertThat(TestUtils.read(payload).asObject(new TypeReference<List<Small>>() {
+            })).extracting(Small::foo).containsExactly("0", "1", "2", "3", "4", "5", "6");
+        }
+
+        @Test
+        void shouldWriteEmptyArray() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            PayloadGenerator.of(read("in/small.json")).parallelism(2).writeTo(out, 0);
+
+            assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+        }
+    }
+
+    @Nested
+    class FixtureCosts {
+
+        @Test
+        void shouldReportFixturesAndMutators(@TempDir Path folder) throws IOException {
+            Path reportFile = folder.resolve("costs.txt");
+            try (FixtureCostExtension.Collector collector = new FixtureCostExtension.Collector(reportFile, 10)) {
+                read("in/big.json")
+                    .mutate(Mutators.setValue("buzz.foo", "Goodbye"))
+                    .mutate(Mutators.replacePlaceholders(Map.of("Guys", "Women")))
+                    .asObject(Big.class);
+                read("in/small.json").asObject(Small.class);
+
+                assertThat(collector.report()).contains("small.json");
+            }
+
+            String report = Files.readString(reportFile);
+            assertThat(report)
+                .contains("big.json")
+                .contains("setValue(buzz.foo)")
+                .contains("replacePlaceholders(1 placeholders)");
+            assertThat(bytesRead(report, "big.json")).isEqualTo(Files.size(resource("in/big.json")));
+            assertThat(bytesRead(report, "small.json")).isEqualTo(Files.size(resource("in/small.json")));
+        }
+
+        private static long bytesRead(String report, String fixture) {
+            String line = report.lines().filter(candidate -> candidate.endsWith(fixture)).findFirst().orElseThrow();
+            return Long.parseLong(line.trim().split("\\s+", 6)[4]);
+        }
+
+        private static Path resource(String name) {
+            try {
+                return Path.of(TestUtilsTest.class.getClassLoader().getResource(name).toURI());
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException(name, e);
+            }
+        }
+    }
+
+    @Nested
+    @ExtendWith(FixtureExtension.class)
+    class InjectFixtures {
+
+        @Fixture("in/big.json")
+        Reader big;
+
+        @Test
+        void shouldInjectFreshReaderInFields() {
+            big.mutate(Mutators.setValue("buzz.foo", "Goodbye"));
+
+            assertThat(big.asObject(Big.class)).isEqualTo(new Big(new Small("Goodbye", "Guys")));
+        }
+
+        @Test
+        void shouldInjectBoundParameters(@Fixture("in/big.json") Big bound, @Fixture("in/list.json") List<Small> list) {
+            assertThat(bound).isEqualTo(new Big(new Small("Hello", "Guys")));
+            assertThat(list).containsExactly(new Small("Hello", "Guys"), new Small("Hello", "Women"));
+        }
+
+        @Test
+        void shouldInjectJsonNodeAndString(@Fixture("in/small.json") ObjectNode node, @Fixture("in/small.json") String content,
+                                           @Fixture("in/small.json") JsonNode other) {
+            node.put("foo", "Goodbye");
+
+            assertThat(node.get("foo").asText()).isEqualTo("Goodbye");
+            assertThat(other.get("foo").asText()).isEqualTo("Hello");
+            assertThat(content).isEqualToIgnoringWhitespace("{\"foo\":\"Hello\",\"bar\":\"Guys\"}");
+        }
+    }
+
     @Nested
     class FromObject {
 
@@ -129,9 +1035,138 @@ class TestUtilsTest {
 
             assertThat(actual).isEqualTo(new Big(new Small(null, "Women")));
         }
+
+        @Test
+        void shouldRebuildOnlyRecordsAlongPath() {
+            Order order = new Order(new Small("Hello", "Guys"), List.of(new Small("a", "b"), new Small("c", "d")), 3);
+
+            Order actual = TestUtils.from(order)
+                .mutate(Mutators.setValue("lines.1.bar", "Women"))
+                .mutate(Mutators.setValue("quantity", "4"))
+                .asObject(Order.class);
+
+            assertThat(actual).isEqualTo(new Order(new Small("Hello", "Guys"), List.of(new Small("a", "b"), new Small("c", "Women")), 4));
+            assertThat(actual.customer()).isSameAs(order.customer());
+            assertThat(actual.lines().get(0)).isSameAs(order.lines().get(0));
+            assertThat(order.lines().get(1)).isEqualTo(new Small("c", "d"));
+        }
+
+        @Test
+        void shouldCopyRecords() {
+            Order order = new Order(new Small("Hello", "Guys"), List.of(new Small("a", "b")), 3);
+
+            Order actual = TestUtils.from(order)
+                .mutate(MutationPlan.builder().copy("customer", "lines.1").setValue("customer.foo", "Goodbye").build())
+                .asObject(Order.class);
+
+            assertThat(actual).isEqualTo(new Order(new Small("Goodbye", "Guys"), List.of(new Small("a", "b"), new Small("Hello", "Guys")), 3));
+        }
+
+        @Test
+        void shouldFallBackToJsonWhenRecordsCanNotBeRebuilt() {
+            Order order = new Order(new Small("Hello", "Guys"), List.of(), 3);
+
+            Order actual = TestUtils.from(order)
+                .mutate(Mutators.setNull("quantity"))
+                .mutate(Mutators.setValue("customer.foo", "Goodbye"))
+                .asObject(Order.class);
+
+            assertThat(actual).isEqualTo(new Order(new Small("Goodbye", "Guys"), List.of(), 0));
+        }
+
+        @Test
+        void shouldConvertSetValuesWithTheDeserializersOfTheObjectMapper() {
+            ObjectMapper objectMapper = TestUtils.createObjectMapper().registerModule(new SimpleModule()
+                .addDeserializer(String.class, new JsonDeserializer<>() {
+                    @Override
+                    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                        return parser.getValueAsString().trim();
+                    }
+                }));
+
+            Big actual = TestUtils.from(new Big(new Small("Hello", "Guys")))
+                .withObjectMapper(objectMapper)
+                .mutate(Mutators.setValue("buzz.foo", "  Goodbye  "))
+                .asObject(Big.class);
+
+            assertThat(actual).isEqualTo(new Big(new Small("Goodbye", "Guys")));
+        }
+
+        @Test
+        void shouldFallBackToJsonWhenRecordsHaveTheirOwnDeserializer() {
+            ObjectMapper objectMapper = TestUtils.createObjectMapper().registerModule(new SimpleModule()
+                .addDeserializer(Small.class, new JsonDeserializer<>() {
+                    @Override
+                    public Small deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                        JsonNode node = parser.readValueAsTree();
+                        return new Small(node.get("foo").asText().toUpperCase(), node.get("bar").asText());
+                    }
+                }));
+
+            Big actual = TestUtils.from(new Big(new Small("Hello", "Guys")))
+                .withObjectMapper(objectMapper)
+                .mutate(Mutators.setValue("buzz.foo", "Goodbye"))
+                .asObject(Big.class);
+
+            assertThat(actual).isEqualTo(new Big(new Small("GOODBYE", "Guys")));
+        }
+
+        @Test
+        void shouldConvertObjectWithoutMutation() {
+            Small actual = TestUtils.from(new Big(new Small("Hello", "Guys")))
+                .asObject(Big.class)
+                .buzz();
+
+            assertThat(actual).isEqualTo(new Small("Hello", "Guys"));
+        }
+
+        @Test
+        void shouldConvertObjectAfterStringMutation() {
+            Big actual = TestUtils.from(new Big(new Small("Hello", "Guys")))
+                .mutate(str -> str.replace("Guys", "Women"))
+                .asObject(Big.class);
+
+            assertThat(actual).isEqualTo(new Big(new Small("Hello", "Women")));
+        }
+    }
+
+    @Nested
+    class SharedObjectMapper {
+
+        @Test
+        void shouldShareDefaultObjectMapper() {
+            assertThat(ObjectMappers.current()).isSameAs(ObjectMappers.defaultObjectMapper());
+        }
+
+        @Test
+        void shouldCacheTypedReaders() {
+            var mapper = ObjectMappers.defaultObjectMapper();
+            assertThat(ObjectMappers.readerFor(mapper, Small.class)).isSameAs(ObjectMappers.readerFor(mapper, Small.class));
+            assertThat(ObjectMappers.readerFor(mapper, new TypeReference<List<Small>>() {
+            })).isSameAs(ObjectMappers.readerFor(mapper, new TypeReference<List<Small>>() {
+            }));
+        }
+
+        @Test
+        void shouldNotKeepDiscardedObjectMappers() throws InterruptedException {
+            ObjectMapper mapper = TestUtils.createObjectMapper();
+            ObjectMappers.readerFor(mapper, Small.class);
+            ObjectMappers.writerFor(mapper, Small.class);
+            WeakReference<ObjectMapper> reference = new WeakReference<>(mapper);
+            mapper = null;
+
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (reference.get() != null) {
+                assertThat(System.nanoTime()).as("collection of the ObjectMapper").isLessThan(deadline);
+                System.gc();
+                Thread.sleep(10);
+            }
+        }
     }
 
     record Big(Small buzz) {}
 
     record Small(String foo, String bar) {}
+
+    record Order(Small customer, List<Small> lines, int quantity) {}
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.fluminis.withbinarycache;
+
+import java.nio.file.Path;
+
+import com.fluminis.fluffytest.BinaryFixtureCache;
+
+public class PackageSettings {
+    static BinaryFixtureCache binaryCache = new BinaryFixtureCache(Path.of("target", "test-binary-cache"));
+}
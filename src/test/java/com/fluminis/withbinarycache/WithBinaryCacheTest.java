@@ -0,0 +1,92 @@
+package com.fluminis.withbinarycache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fluminis.fluffytest.Mutators;
+import com.fluminis.fluffytest.TestUtils;
+
+public class WithBinaryCacheTest {
+
+    @TempDir
+    Path folder;
+
+    @BeforeEach
+    void clearCache() throws IOException {
+        for (Path file : cachedFiles()) {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void shouldNotReadTextOfUnchangedFile() throws IOException {
+        Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        assertThat(TestUtils.read(file).<JsonNode>asJsonNode().get("foo").asText()).isEqualTo("Hello");
+
+        // same size and last modified time: only the cached file is read
+        Files.writeString(file, "{\"foo\":\"World\"}");
+        Files.setLastModifiedTime(file, lastModified);
+        assertThat(TestUtils.read(file).<JsonNode>asJsonNode().get("foo").asText()).isEqualTo("Hello");
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() + 1000));
+        assertThat(TestUtils.read(file).<JsonNode>asJsonNode().get("foo").asText()).isEqualTo("World");
+        assertThat(Files.readString(PackageSettings.binaryCache.directory().resolve("index"))).contains(file.toString());
+    }
+
+    @Test
+    void shouldWriteParsedFixtureOnce() throws IOException {
+        JsonNode first = TestUtils.read("in/small.json").asJsonNode();
+        List<Path> cached = cachedFiles();
+        JsonNode second = TestUtils.read("in/small.json").asJsonNode();
+
+        assertThat(cached).hasSize(1);
+        assertThat(cachedFiles()).isEqualTo(cached);
+        assertThat(second).isEqualTo(first);
+        assertThat(second.get("foo").asText()).isEqualTo("Hello");
+    }
+
+    @Test
+    void shouldBindAndMutateFromCachedFixture() {
+        TestUtils.read("in/small.json").asString();
+        TestUtils.read("in/small.json").asJsonNode();
+
+        JsonNode mutated = TestUtils.read("in/small.json")
+                .mutate(Mutators.setValue("foo", "Goodbye"))
+                .asObject(JsonNode.class);
+
+        assertThat(mutated.get("foo").asText()).isEqualTo("Goodbye");
+        assertThat(mutated.get("bar").asText()).isEqualTo("Guys");
+    }
+
+    @Test
+    void shouldParseTextWhenCachedFileIsCorrupted() throws IOException {
+        TestUtils.read("in/small.json").asJsonNode();
+        Files.writeString(cachedFiles().get(0), "garbage");
+
+        JsonNode node = TestUtils.read("in/small.json").asJsonNode();
+
+        assertThat(node.get("foo").asText()).isEqualTo("Hello");
+    }
+
+    private static List<Path> cachedFiles() throws IOException {
+        Path directory = PackageSettings.binaryCache.directory();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".sml")).sorted().toList();
+        }
+    }
+}
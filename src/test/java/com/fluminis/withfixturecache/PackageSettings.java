@@ -0,0 +1,7 @@
+package com.fluminis.withfixturecache;
+
+import com.fluminis.fluffytest.FixtureCache;
+
+public class PackageSettings {
+    static FixtureCache fixtureCache = new FixtureCache(1024 * 1024);
+}
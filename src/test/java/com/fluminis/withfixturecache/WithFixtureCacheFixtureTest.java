@@ -0,0 +1,30 @@
+package com.fluminis.withfixturecache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fluminis.fluffytest.Fixture;
+import com.fluminis.fluffytest.FixtureCache;
+import com.fluminis.fluffytest.FixtureExtension;
+import com.fluminis.fluffytest.Reader;
+import com.fluminis.fluffytest.TestUtils;
+
+@ExtendWith(FixtureExtension.class)
+public class WithFixtureCacheFixtureTest {
+
+    @Fixture("in/nested-list.json")
+    Reader nested;
+
+    @Test
+    void shouldPrefetchFixturesInTheCacheOfThePackageSettings() {
+        FixtureCache.Stats before = PackageSettings.fixtureCache.stats();
+
+        TestUtils.read("in/nested-list.json").asString();
+
+        FixtureCache.Stats after = PackageSettings.fixtureCache.stats();
+        assertThat(after.hits() - before.hits()).isEqualTo(1);
+        assertThat(after.misses() - before.misses()).isZero();
+    }
+}
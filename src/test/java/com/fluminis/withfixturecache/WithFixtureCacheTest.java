@@ -0,0 +1,67 @@
+package com.fluminis.withfixturecache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fluminis.fluffytest.FixtureCache;
+import com.fluminis.fluffytest.Mutators;
+import com.fluminis.fluffytest.Reader;
+import com.fluminis.fluffytest.TestUtils;
+
+public class WithFixtureCacheTest {
+
+    @BeforeEach
+    void clearCache() {
+        PackageSettings.fixtureCache.clear();
+    }
+
+    @Test
+    void shouldReadFileOnlyOnce() {
+        FixtureCache.Stats before = PackageSettings.fixtureCache.stats();
+
+        TestUtils.read("in/small.json").asString();
+        TestUtils.read("in/small.json").asJsonNode();
+        TestUtils.read("in/small.json").asObject(JsonNode.class);
+
+        FixtureCache.Stats after = PackageSettings.fixtureCache.stats();
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(2);
+        assertThat(after.entries()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadAsynchronouslyFromTheCache() {
+        FixtureCache.Stats before = PackageSettings.fixtureCache.stats();
+
+        TestUtils.readAsync("in/big.json").join();
+        TestUtils.readAsync("in/big.json").join();
+
+        FixtureCache.Stats after = PackageSettings.fixtureCache.stats();
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadAllFilesInTheCache() {
+        List<Reader> readers = TestUtils.readAll("in");
+
+        assertThat(PackageSettings.fixtureCache.stats().entries()).isEqualTo(readers.size());
+    }
+
+    @Test
+    void shouldNotLeakMutationsBetweenReaders() {
+        String mutated = TestUtils.read("in/small.json")
+                .mutate(Mutators.setValue("foo", "Goodbye"))
+                .asObject(JsonNode.class)
+                .get("foo")
+                .asText();
+        assertThat(mutated).isEqualTo("Goodbye");
+
+        assertThat(TestUtils.read("in/small.json").<JsonNode>asJsonNode().get("foo").asText()).isEqualTo("Hello");
+    }
+}
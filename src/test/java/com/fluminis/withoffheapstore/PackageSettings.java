@@ -0,0 +1,30 @@
+package com.fluminis.withoffheapstore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.fluminis.fluffytest.OffHeapFixtureStore;
+
+public class PackageSettings {
+    // in/small.json and in/big.json fit together, in/list.json only alone, whatever the line endings of the checkout
+    static OffHeapFixtureStore offHeapStore = new OffHeapFixtureStore(Math.max(size("in/list.json"), size("in/small.json") + size("in/big.json")));
+
+    static Path path(String resource) {
+        try {
+            return Path.of(PackageSettings.class.getClassLoader().getResource(resource).toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(resource, e);
+        }
+    }
+
+    static long size(String resource) {
+        try {
+            return Files.size(path(resource));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.fluminis.withoffheapstore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fluminis.fluffytest.OffHeapFixtureStore;
+import com.fluminis.fluffytest.TestUtils;
+
+public class WithOffHeapStoreTest {
+
+    @BeforeEach
+    void clearStore() {
+        PackageSettings.offHeapStore.clear();
+    }
+
+    @Test
+    void shouldReadFileOnlyOnce() {
+        OffHeapFixtureStore.Stats before = PackageSettings.offHeapStore.stats();
+
+        assertThat(TestUtils.read("in/small.json").asString()).contains("\"Hello\"");
+        assertThat(TestUtils.read("in/small.json").<JsonNode>asJsonNode().get("foo").asText()).isEqualTo("Hello");
+        assertThat(TestUtils.read("in/small.json").asObject(JsonNode.class).get("foo").asText()).isEqualTo("Hello");
+
+        OffHeapFixtureStore.Stats after = PackageSettings.offHeapStore.stats();
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(2);
+        assertThat(after.entries()).isEqualTo(1);
+        assertThat(after.storedBytes()).isEqualTo(PackageSettings.size("in/small.json"));
+    }
+
+    @Test
+    void shouldEvictBytes() {
+        TestUtils.read("in/small.json").asString();
+        TestUtils.read("in/big.json").asString();
+
+        PackageSettings.offHeapStore.evict(PackageSettings.path("in/small.json"));
+        assertThat(PackageSettings.offHeapStore.stats().storedBytes()).isEqualTo(PackageSettings.size("in/big.json"));
+
+        PackageSettings.offHeapStore.clear();
+        assertThat(PackageSettings.offHeapStore.stats().entries()).isZero();
+        assertThat(PackageSettings.offHeapStore.stats().storedBytes()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedFiles() {
+        TestUtils.read("in/small.json").asString();
+        TestUtils.read("in/big.json").asString();
+        assertThat(PackageSettings.offHeapStore.stats().storedBytes())
+            .isEqualTo(PackageSettings.size("in/small.json") + PackageSettings.size("in/big.json"));
+
+        assertThat(TestUtils.read("in/list.json").<JsonNode>asJsonNode().isArray()).isTrue();
+
+        OffHeapFixtureStore.Stats stats = PackageSettings.offHeapStore.stats();
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.entries()).isEqualTo(1);
+        assertThat(stats.storedBytes()).isEqualTo(PackageSettings.size("in/list.json"));
+    }
+
+    @Test
+    void shouldNotKeepFilesLargerThanTheStore() {
+        JsonNode nested = TestUtils.read("in/nested-list.json").asJsonNode();
+
+        assertThat(nested).isNotNull();
+        assertThat(PackageSettings.offHeapStore.stats().entries()).isZero();
+    }
+}
@@ -0,0 +1,22 @@
+package com.fluminis.withpackagesettings;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fluminis.fluffytest.Fixture;
+import com.fluminis.fluffytest.FixtureExtension;
+import com.fluminis.fluffytest.Reader;
+
+@ExtendWith(FixtureExtension.class)
+public class WithPackageSettingsFixtureTest {
+
+    @Fixture("one.json")
+    Reader one;
+
+    @Test
+    void shouldInjectFixtureFromSubFolderWhenPackageSettings() {
+        assertThat(one.asString()).isEqualToIgnoringWhitespace("{\"foo\":\"hello\"}");
+    }
+}
@@ -0,0 +1,5 @@
+package com.fluminis.withstaticpackagesettings;
+
+public class PackageSettings {
+    static String ressourceFolder = "org/fluminis/some";
+}
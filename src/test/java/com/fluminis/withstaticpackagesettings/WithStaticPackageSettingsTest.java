@@ -0,0 +1,32 @@
+package com.fluminis.withstaticpackagesettings;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.packagesettings.PackageLevelSettings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fluminis.fluffytest.TestUtils;
+
+public class WithStaticPackageSettingsTest {
+
+    @AfterEach
+    void restoreSettings() {
+        PackageSettings.ressourceFolder = "org/fluminis/some";
+        PackageLevelSettings.clearCache();
+    }
+
+    @Test
+    void shouldKeepResolvedSettingsUntilCacheIsCleared() {
+        assertThat(TestUtils.read("one.json").asString()).isEqualToIgnoringWhitespace("{\"foo\":\"hello\"}");
+
+        PackageSettings.ressourceFolder = "in";
+        assertThat(TestUtils.read("one.json").asString()).isEqualToIgnoringWhitespace("{\"foo\":\"hello\"}");
+
+        PackageLevelSettings.clearCache();
+        assertThat(TestUtils.read("small.json").asString()).contains("Hello");
+        assertThatThrownBy(() -> TestUtils.read("one.json").asString())
+                .hasMessageContaining("Could not read ");
+    }
+}
@@ -0,0 +1,7 @@
+package com.fluminis.withwatchingcache;
+
+import com.fluminis.fluffytest.FixtureCache;
+
+public class PackageSettings {
+    static FixtureCache fixtureCache = FixtureCache.watching(1024 * 1024);
+}
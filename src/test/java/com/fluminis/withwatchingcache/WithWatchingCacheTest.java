@@ -0,0 +1,82 @@
+package com.fluminis.withwatchingcache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fluminis.fluffytest.FixtureCache;
+import com.fluminis.fluffytest.TestUtils;
+
+public class WithWatchingCacheTest {
+
+    @TempDir
+    Path folder;
+
+    @BeforeEach
+    void clearCache() {
+        PackageSettings.fixtureCache.clear();
+    }
+
+    @Test
+    void shouldServeUnchangedFileFromMemory() throws IOException {
+        Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+        FixtureCache.Stats before = PackageSettings.fixtureCache.stats();
+
+        TestUtils.read(file).asString();
+        TestUtils.read(file).asJsonNode();
+        TestUtils.read(file).asObject(JsonNode.class);
+
+        FixtureCache.Stats after = PackageSettings.fixtureCache.stats();
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictModifiedFile() throws IOException {
+        Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+        assertThat(foo(file)).isEqualTo("Hello");
+
+        Files.writeString(file, "{\"foo\":\"Goodbye\"}");
+
+        awaitUntil(() -> foo(file).equals("Goodbye"));
+        assertThat(PackageSettings.fixtureCache.stats().invalidations()).isPositive();
+    }
+
+    @Test
+    void shouldEvictDeletedFile() throws IOException {
+        Path file = Files.writeString(folder.resolve("fixture.json"), "{\"foo\":\"Hello\"}");
+        assertThat(foo(file)).isEqualTo("Hello");
+
+        Files.delete(file);
+
+        awaitUntil(() -> PackageSettings.fixtureCache.stats().entries() == 0);
+    }
+
+    private static String foo(Path file) {
+        return TestUtils.read(file).<JsonNode>asJsonNode().get("foo").asText();
+    }
+
+    /**
+     * File system events are delivered asynchronously, and polled by some platforms.
+     */
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("file system event").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}